@@ -0,0 +1,90 @@
+package com.mycompany.a4.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.a4.ILineSink;
+import com.mycompany.a4.ShockWaveSystem;
+
+
+/**
+ * Measures the shockwaves' Bezier curves: drawing them, through the same loop ShockWaveSystem.draw uses
+ * with a graphics object, and spawning shockwaves, which subdivides a new curve each time. Drawn
+ * segments are only counted, so none of the time is spent rasterizing.
+ * 
+ * @author Eric Brown
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class BezierKernel implements ILineSink {
+	private static final int WAVE_COUNT = 256;
+	
+	@Param({"42"})
+	public long seed;
+	
+	private ShockWaveSystem drawn = new ShockWaveSystem();
+	private ShockWaveSystem spawned = new ShockWaveSystem();
+	private Random random;
+	private int segments = 0;
+	
+	/**
+	 * Spawns the shockwaves that are drawn.
+	 */
+	@Setup
+	public void setUp() {
+		random = new Random(seed);
+		
+		for (int i = 0; i < WAVE_COUNT; i++) {
+			drawn.spawn(0, 0, random);
+		}
+	}
+	
+	/**
+	 * Draws every shockwave, reported per shockwave.
+	 * 
+	 * @return					segments drawn so far
+	 */
+	@Benchmark
+	@OperationsPerInvocation(WAVE_COUNT)
+	public int draw() {
+		drawn.draw(this, 1, -ShockWaveSystem.SIZE, -ShockWaveSystem.SIZE, ShockWaveSystem.SIZE, ShockWaveSystem.SIZE);
+		return segments;
+	}
+	
+	/**
+	 * Spawns one shockwave into a recycled row.
+	 * 
+	 * @return					number of live shockwaves
+	 */
+	@Benchmark
+	public int spawn() {
+		// Keep the system at a steady size so its arrays are recycled instead of growing.
+		if (spawned.size() == WAVE_COUNT) {
+			spawned.clear();
+		}
+		spawned.spawn(0, 0, random);
+		return spawned.size();
+	}
+	
+	@Override
+	public void addLine(double x1, double y1, double x2, double y2) {
+		segments++;
+	}
+}
@@ -0,0 +1,70 @@
+package com.mycompany.a4.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.a4.EnergyStation;
+import com.mycompany.a4.GameObject;
+
+
+/**
+ * Measures the bounding box test in GameObject.collidesWith over a fixed set of object pairs, about a
+ * quarter of which overlap.
+ * 
+ * @author Eric Brown
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class CollidesWithKernel {
+	private static final int OBJECT_COUNT = 1024;  // Power of two, indices wrap with a mask.
+	private static final int AREA = 400;
+	
+	@Param({"42"})
+	public long seed;
+	
+	private GameObject[] objects = new GameObject[OBJECT_COUNT];
+	private int next = 0;
+	
+	/**
+	 * Places the objects.
+	 */
+	@Setup
+	public void setUp() {
+		Random random = new Random(seed);
+		
+		for (int i = 0; i < OBJECT_COUNT; i++) {
+			objects[i] = new EnergyStation(50 + random.nextInt(70), random.nextInt(AREA), random.nextInt(AREA));
+		}
+	}
+	
+	/**
+	 * Tests the next pair.
+	 * 
+	 * @return					true if the pair overlaps
+	 */
+	@Benchmark
+	public boolean collidesWith() {
+		int mask = OBJECT_COUNT - 1;
+		int first = next & mask;
+		int second = (next * 7 + 1) & mask;
+		next++;
+		
+		return objects[first].collidesWith(objects[second]);
+	}
+}
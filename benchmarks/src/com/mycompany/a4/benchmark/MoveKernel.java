@@ -0,0 +1,94 @@
+package com.mycompany.a4.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codename1.ui.Graphics;
+import com.mycompany.a4.Movable;
+
+
+/**
+ * Measures Movable.move on its own: the heading to radians conversion, the sine and cosine and the two
+ * location updates. The objects only override draw, so none of the subclasses' extra work is included.
+ * 
+ * @author Eric Brown
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class MoveKernel {
+	private static final int OBJECT_COUNT = 1024;  // Power of two, indices wrap with a mask.
+	private static final long STEP_MILLIS = 20;
+	
+	@Param({"42"})
+	public long seed;
+	
+	private Movable[] objects = new Movable[OBJECT_COUNT];
+	private int next = 0;
+	
+	/**
+	 * Places the objects.
+	 */
+	@Setup
+	public void setUp() {
+		Random random = new Random(seed);
+		
+		for (int i = 0; i < OBJECT_COUNT; i++) {
+			objects[i] = new PlainMovable(random.nextInt(1000), random.nextInt(1000), 30 + random.nextInt(70), random.nextInt(360));
+		}
+	}
+	
+	/**
+	 * Moves the next object by one step.
+	 * 
+	 * @return					the object's new x coordinate
+	 */
+	@Benchmark
+	public float move() {
+		Movable object = objects[next++ & (OBJECT_COUNT - 1)];
+		object.move(STEP_MILLIS);
+		return object.getLocationX();
+	}
+	
+	/**
+	 * A movable with no behavior of its own.
+	 * 
+	 * @author Eric Brown
+	 */
+	private static class PlainMovable extends Movable {
+		/**
+		 * Constructor for PlainMovable.
+		 */
+		PlainMovable(float locationX, float locationY, int speed, int heading) {
+			super(10, 0, locationX, locationY, speed, heading);
+		}
+		
+		@Override
+		protected void drawShape(Graphics g, int frame) {}
+		
+		@Override
+		protected int getShapeExtent() {
+			return 0;
+		}
+		
+		@Override
+		protected int getSpriteKind() {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.mycompany.a4.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.a4.GameWorld;
+import com.mycompany.a4.HeadlessEngine;
+
+
+/**
+ * TickBenchmark is a JMH benchmark of GameWorld.tick on headless worlds of increasing size. It reports
+ * ticks per second and, through JMH's sample time mode, the latency percentiles of a single tick. Every
+ * world is built from a fixed seed, so runs on different commits tick the same worlds and their results
+ * can be compared directly.
+ * 
+ * Each iteration ticks a freshly built world, so short lived objects (shockwaves) are still around while
+ * it is measured. A world that lost a life or ended during an iteration is reported on standard error,
+ * since losing a life rebuilds the world and skews that iteration's timings.
+ * 
+ * BRUTE_FORCE is quadratic and would take hours at the larger counts, so it isn't in the default modes.
+ * Measure it on its own with "-p mode=BRUTE_FORCE -p entities=10,100,1000,5000".
+ * 
+ * @author Eric Brown
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickBenchmark {
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int entities;
+	
+	@Param({"SPATIAL_HASH", "SWEEP_AND_PRUNE"})
+	public GameWorld.CollisionMode mode;
+	
+	@Param({"70,10,10,10"})
+	public String mix;  // Shares of drones, robots, energy stations and shockwaves.
+	
+	@Param({"0"})
+	public int threads;  // Extra worker threads the world may use.
+	
+	@Param({"20"})
+	public int step;  // Milliseconds per tick.
+	
+	@Param({"42"})
+	public long seed;  // Iteration i builds its world from seed + i.
+	
+	private WorldBuilder builder;
+	private HeadlessEngine engine;
+	private GameWorld gw;
+	private int iteration = 0;
+	private int lives;
+	
+	/**
+	 * Parses the mix the worlds are built with.
+	 */
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		String[] shares = mix.split(",");
+		builder = new WorldBuilder(Integer.parseInt(shares[0].trim()), Integer.parseInt(shares[1].trim()),
+				Integer.parseInt(shares[2].trim()), Integer.parseInt(shares[3].trim()));
+	}
+	
+	/**
+	 * Builds the world the next iteration ticks. It is ticked once first, since the first tick has the
+	 * broad phase index every object at once (for sweep and prune, sorting its end points from scratch)
+	 * and would otherwise dominate the latency of the larger worlds.
+	 */
+	@Setup(Level.Iteration)
+	public void setUpIteration() {
+		engine = builder.build(entities, mode, seed + iteration++, threads);
+		gw = engine.getWorld();
+		gw.tick(step);
+		lives = gw.getLives();
+	}
+	
+	/**
+	 * Shuts the world down, warning if it was disturbed while measured.
+	 */
+	@TearDown(Level.Iteration)
+	public void tearDownIteration() {
+		if (gw.getLives() != lives || gw.isGameOver()) {
+			System.err.println("Warning: the world lost a life or ended during this iteration, its timings shouldn't be compared.");
+		}
+		engine.dispose();
+	}
+	
+	/**
+	 * Ticks the world once.
+	 * 
+	 * @return					objects in play, so the tick can't be optimized away
+	 */
+	@Benchmark
+	public int tick() {
+		gw.tick(step);
+		return gw.getObjectCollection().size();
+	}
+}
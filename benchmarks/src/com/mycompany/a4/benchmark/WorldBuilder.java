@@ -0,0 +1,125 @@
+package com.mycompany.a4.benchmark;
+
+import java.util.Random;
+
+import com.codename1.charts.util.ColorUtil;
+import com.mycompany.a4.AttackStrategy;
+import com.mycompany.a4.Drone;
+import com.mycompany.a4.EnergyStation;
+import com.mycompany.a4.GameObjectCollection;
+import com.mycompany.a4.GameWorld;
+import com.mycompany.a4.HeadlessEngine;
+import com.mycompany.a4.NonPlayerRobot;
+import com.mycompany.a4.PlayerRobot;
+import com.mycompany.a4.RaceStrategy;
+import com.mycompany.a4.ShockWaveSystem;
+
+
+/**
+ * WorldBuilder creates headless worlds populated with a given number of entities for the benchmarks.
+ * The world grows with the entity count so the density, and with it the number of collisions per
+ * object, stays about the same from 10 to 100k entities. Everything is placed from a fixed seed.
+ * 
+ * @author Eric Brown
+ */
+public class WorldBuilder {
+	private static final int AREA_PER_ENTITY = 250 * 250;  // World units squared per entity.
+	private static final int MINIMUM_SIDE = 2000;
+	private static final int PLAYER_CLEARANCE = 300;  // Nothing is placed this close to the player, so it isn't destroyed mid benchmark.
+	
+	private int drones;
+	private int robots;
+	private int stations;
+	private int shockWaves;
+	
+	/**
+	 * Constructor for WorldBuilder.
+	 * 
+	 * @param drones			relative share of drones
+	 * @param robots			relative share of non-player robots
+	 * @param stations			relative share of energy stations
+	 * @param shockWaves		relative share of shockwaves
+	 */
+	public WorldBuilder(int drones, int robots, int stations, int shockWaves) {
+		this.drones = drones;
+		this.robots = robots;
+		this.stations = stations;
+		this.shockWaves = shockWaves;
+	}
+	
+	/**
+	 * Builds a world holding roughly the given number of entities, split according to the shares.
+	 * 
+	 * @param entities			number of entities to add on top of the ones every world starts with
+	 * @param mode				collision mode of the world
+	 * @param seed				seed for the world and for placing the entities
+	 * @param workerThreads		extra threads the world may spread large ticks over
+	 * @return					an engine running the populated world
+	 */
+	public HeadlessEngine build(int entities, GameWorld.CollisionMode mode, long seed, int workerThreads) {
+		int side = Math.max(MINIMUM_SIDE, (int) Math.sqrt((double) entities * AREA_PER_ENTITY));
+		HeadlessEngine engine = new HeadlessEngine(side, side, mode, seed, workerThreads);
+		GameWorld gw = engine.getWorld();
+		GameObjectCollection objects = gw.getObjectCollection();
+		PlayerRobot player = gw.getPlayer();
+		Random random = new Random(seed);
+		
+		int totalShares = drones + robots + stations + shockWaves;
+		int droneCount = entities * drones / totalShares;
+		int robotCount = entities * robots / totalShares;
+		int stationCount = entities * stations / totalShares;
+		int shockWaveCount = entities - droneCount - robotCount - stationCount;
+		
+		for (int i = 0; i < droneCount; i++) {
+			float[] location = placeAwayFrom(player, side, random);
+			objects.add(new Drone(50 + random.nextInt(70), ColorUtil.GRAY, location[0], location[1],
+					30 + random.nextInt(30), random.nextInt(360), side, side, random.nextLong()));
+		}
+		
+		for (int i = 0; i < robotCount; i++) {
+			float[] location = placeAwayFrom(player, side, random);
+			NonPlayerRobot robot = new NonPlayerRobot(ColorUtil.rgb(255, 0, 0), location[0], location[1], random.nextInt(360), null);
+			
+			if (i % 2 == 0) {
+				robot.setStrategy(new RaceStrategy(robot, gw));
+			}
+			else {
+				robot.setStrategy(new AttackStrategy(robot, gw));
+			}
+			objects.add(robot);
+		}
+		
+		for (int i = 0; i < stationCount; i++) {
+			float[] location = placeAwayFrom(player, side, random);
+			objects.add(new EnergyStation(50 + random.nextInt(70), location[0], location[1]));
+		}
+		
+		ShockWaveSystem waves = gw.getShockWaves();
+		for (int i = 0; i < shockWaveCount; i++) {
+			float[] location = placeAwayFrom(player, side, random);
+			waves.spawn(location[0], location[1], random);
+		}
+		
+		return engine;
+	}
+	
+	/**
+	 * Picks a random location in the world that is not close to the player.
+	 * 
+	 * @param player			the world's player robot
+	 * @param side				width and height of the world
+	 * @param random			source of the location
+	 * @return					x and y coordinates
+	 */
+	private static float[] placeAwayFrom(PlayerRobot player, int side, Random random) {
+		float x;
+		float y;
+		
+		do {
+			x = random.nextInt(side);
+			y = random.nextInt(side);
+		} while (Math.abs(x - player.getLocationX()) < PLAYER_CLEARANCE && Math.abs(y - player.getLocationY()) < PLAYER_CLEARANCE);
+		
+		return new float[] {x, y};
+	}
+}
@@ -9,22 +9,28 @@ package com.mycompany.a4;
  */
 public class AttackStrategy implements IStrategy {
 	NonPlayerRobot robot;
+	private GameWorld gw;
 	
 	/**
 	 * Constructor for AttackStrategy.
 	 * 
 	 * @param robot
+	 * @param world				game world that holds the player robot to attack
 	 */
-	public AttackStrategy(NonPlayerRobot robot) {
+	public AttackStrategy(NonPlayerRobot robot, GameWorld world) {
 		this.robot = robot;
+		this.gw = world;
 	}
 	
 	/**
 	 * Performs the strategy by moving the robot towards the player. Should be called once per in-game tick.
+	 * Steers towards where the player was at the start of the tick, so the result doesn't depend on whether
+	 * the player has already moved this tick.
 	 */
 	@Override
 	public void invoke() {
-		robot.steerTowardsIntendedLocation(PlayerRobot.getInstance().getLocationX(), PlayerRobot.getInstance().getLocationY());
+		PlayerRobot player = gw.getPlayer();
+		robot.steerTowardsIntendedLocation(player.getPreviousLocationX(), player.getPreviousLocationY());
 	}
 	
 	/**
@@ -32,6 +38,6 @@ public class AttackStrategy implements IStrategy {
 	 */
 	@Override
 	public String toString() {
-		return "[Attack Strategy] Traveling towards player at (" + PlayerRobot.getInstance().getLocationX() + ", " + PlayerRobot.getInstance().getLocationY() + ")";
+		return "[Attack Strategy] Traveling towards player at (" + gw.getPlayer().getLocationX() + ", " + gw.getPlayer().getLocationY() + ")";
 	}
 }
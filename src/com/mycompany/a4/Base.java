@@ -2,7 +2,6 @@ package com.mycompany.a4;
 
 import com.codename1.charts.util.ColorUtil;
 import com.codename1.ui.Graphics;
-import com.codename1.ui.Transform;
 import com.codename1.ui.geom.Point;
 
 /**
@@ -16,6 +15,9 @@ import com.codename1.ui.geom.Point;
 public class Base extends Fixed {
 	private static final int BASE_SIZE = 100;  // Size of all bases.
 	private int sequenceNumber;  // Sequence number of the base. Must be traversed in order to progress the game.
+	private String label;  // Sequence number as drawn.
+	private int[] xPoints = new int[3];  // Triangle points, built once since the size never changes.
+	private int[] yPoints = new int[3];
 	
 	/**
 	 * Constructor for the Base class.
@@ -28,6 +30,16 @@ public class Base extends Fixed {
 	public Base(int color, float locationX, float locationY, int sequenceNumber) {
 		super(BASE_SIZE, color, locationX, locationY);
 		this.sequenceNumber = sequenceNumber;
+		this.label = Integer.toString(sequenceNumber);
+		
+		float x = -this.getSize() / 2;
+		float y = -this.getSize() / 2;
+		xPoints[0] = (int) x;  // X locations of triangle points.
+		xPoints[1] = (int) (x + this.getSize());
+		xPoints[2] = (int) ((2 * x + this.getSize()) / 2);
+		yPoints[0] = (int) y;  // Y locations of triangle points.
+		yPoints[1] = (int) y;
+		yPoints[2] = (int) (y + this.getSize());
 	}
 	
 	/**
@@ -39,6 +51,14 @@ public class Base extends Fixed {
 		return this.sequenceNumber;
 	}
 	
+	/**
+	 * @return		text drawn on the base
+	 */
+	@Override
+	public String getLabel() {
+		return this.label;
+	}
+	
 	/**
 	 * @return		a string representing the base's state
 	 */
@@ -57,22 +77,15 @@ public class Base extends Fixed {
 	 * Draws the base to the screen.
 	 */
 	@Override
-	public void draw(Graphics g) {
+	public void draw(Graphics g, DrawContext context) {
 		float x = -this.getSize() / 2;
 		float y = -this.getSize() / 2;
-		int[] xPoints = {(int) x, (int) (x + this.getSize()), (int) ((2 * x + this.getSize()) / 2)};  // X locations of triangle points.
-		int[] yPoints = {(int) y, (int) y, (int) (y + this.getSize())};  // Y locations of triangle points.
-				
-		Transform oldXform = Transform.makeIdentity();
-		g.getTransform(oldXform);
 		
-		applyTranslation(g);
-		applyRotation(g);
-		applyScale(g);
-		g.setColor(this.getColor());
+		applyModelTransform(g, context);
+		g.setColor(this.getDrawColor());
 		
 		
-		if (isSelected()) {
+		if (isDrawnSelected()) {
 			g.drawPolygon(xPoints, yPoints, 3);
 		}
 		else {
@@ -82,13 +95,10 @@ public class Base extends Fixed {
 		g.setColor(ColorUtil.BLACK);
 		
 		// Invert the text.
-		Transform t = Transform.makeIdentity();
-		g.getTransform(t);
-		t.scale(1, -1);
-		g.setTransform(t);
-		g.drawString(Integer.toString(this.sequenceNumber), (int) ((x * 2 + this.getSize()) / 2), (int) y - 200);
+		flipVertically(g, context);
+		g.drawString(getDrawLabel(), (int) ((x * 2 + this.getSize()) / 2), (int) y - 200);
 		
-		g.setTransform(oldXform);
+		restoreTransform(g, context);
 		
 	}
 }
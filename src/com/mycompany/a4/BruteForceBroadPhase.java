@@ -0,0 +1,30 @@
+package com.mycompany.a4;
+
+
+/**
+ * BruteForceBroadPhase reports every pair of objects in play as a candidate. It does no culling at all
+ * and is kept as the reference to compare the other broad phases against.
+ *
+ * @author Eric Brown
+ */
+public class BruteForceBroadPhase implements IBroadPhase {
+	/**
+	 * Writes every unordered pair of objects into the buffer.
+	 */
+	@Override
+	public void findCandidatePairs(GameObjectCollection objects, CollisionPairBuffer pairs) {
+		for (int i = 0; i < objects.size(); i++) {
+			GameObject first = objects.get(i);
+			
+			for (int j = i + 1; j < objects.size(); j++) {
+				pairs.add(first, objects.get(j));
+			}
+		}
+	}
+	
+	/**
+	 * Nothing is tracked between ticks.
+	 */
+	@Override
+	public void clear() {}
+}
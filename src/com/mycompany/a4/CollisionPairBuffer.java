@@ -0,0 +1,172 @@
+package com.mycompany.a4;
+
+
+/**
+ * CollisionPairBuffer holds the pairs of game objects that a broad phase has decided might be colliding,
+ * or that the narrow phase found to be colliding. The backing arrays are reused between ticks so filling
+ * the buffer does not create garbage once it has grown to the size of the largest tick.
+ *
+ * @author Eric Brown
+ */
+public class CollisionPairBuffer {
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int INSERTION_SORT_THRESHOLD = 16;  // Ranges this small are insertion sorted.
+	
+	private GameObject[] firsts = new GameObject[INITIAL_CAPACITY];
+	private GameObject[] seconds = new GameObject[INITIAL_CAPACITY];
+	private long[] keys;  // Scratch space for sortByIds, allocated on first use.
+	private int size = 0;
+	
+	/**
+	 * Adds a pair of objects to the buffer.
+	 *
+	 * @param first				first object of the pair
+	 * @param second			second object of the pair
+	 */
+	public void add(GameObject first, GameObject second) {
+		if (size == firsts.length) {
+			grow();
+		}
+		
+		firsts[size] = first;
+		seconds[size] = second;
+		size++;
+	}
+	
+	/**
+	 * Adds every pair in another buffer to this one.
+	 *
+	 * @param other				buffer to copy the pairs from
+	 */
+	public void addAll(CollisionPairBuffer other) {
+		for (int i = 0; i < other.size; i++) {
+			add(other.firsts[i], other.seconds[i]);
+		}
+	}
+	
+	/**
+	 * Sorts the pairs by the ids of their objects, and puts the object with the lower id first in each
+	 * pair. Pairs found by different threads, or in a different order by a different broad phase, are
+	 * then always handled in the same order.
+	 */
+	public void sortByIds() {
+		if (keys == null || keys.length < size) {
+			keys = new long[firsts.length];
+		}
+		
+		for (int i = 0; i < size; i++) {
+			if (firsts[i].getId() > seconds[i].getId()) {
+				GameObject temp = firsts[i];
+				firsts[i] = seconds[i];
+				seconds[i] = temp;
+			}
+			keys[i] = PairSet.key(firsts[i].getId(), seconds[i].getId());
+		}
+		sort(0, size - 1);
+	}
+	
+	/**
+	 * Removes all the pairs from the buffer.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {  // Drop the references so removed objects can be collected.
+			firsts[i] = null;
+			seconds[i] = null;
+		}
+		size = 0;
+	}
+	
+	/**
+	 * @return					number of pairs in the buffer
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @param pair				index of the pair
+	 * @return					first object of the pair
+	 */
+	public GameObject getFirst(int pair) {
+		return this.firsts[pair];
+	}
+	
+	/**
+	 * @param pair				index of the pair
+	 * @return					second object of the pair
+	 */
+	public GameObject getSecond(int pair) {
+		return this.seconds[pair];
+	}
+	
+	/**
+	 * Quicksorts the pairs in [low, high] by key.
+	 *
+	 * @param low				first index of the range
+	 * @param high				last index of the range
+	 */
+	private void sort(int low, int high) {
+		while (high - low >= INSERTION_SORT_THRESHOLD) {
+			long pivot = keys[(low + high) >>> 1];
+			int i = low;
+			int j = high;
+			
+			while (i <= j) {
+				while (keys[i] < pivot) {
+					i++;
+				}
+				while (keys[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(i++, j--);
+				}
+			}
+			
+			// Recurse into the smaller half and loop on the larger one to keep the stack shallow.
+			if (j - low < high - i) {
+				sort(low, j);
+				low = i;
+			}
+			else {
+				sort(i, high);
+				high = j;
+			}
+		}
+		
+		for (int i = low + 1; i <= high; i++) {
+			for (int j = i; j > low && keys[j - 1] > keys[j]; j--) {
+				swap(j - 1, j);
+			}
+		}
+	}
+	
+	/**
+	 * Swaps two pairs and their keys.
+	 */
+	private void swap(int a, int b) {
+		long key = keys[a];
+		keys[a] = keys[b];
+		keys[b] = key;
+		
+		GameObject first = firsts[a];
+		firsts[a] = firsts[b];
+		firsts[b] = first;
+		
+		GameObject second = seconds[a];
+		seconds[a] = seconds[b];
+		seconds[b] = second;
+	}
+	
+	/**
+	 * Doubles the capacity of the backing arrays.
+	 */
+	private void grow() {
+		GameObject[] newFirsts = new GameObject[firsts.length * 2];
+		GameObject[] newSeconds = new GameObject[seconds.length * 2];
+		System.arraycopy(firsts, 0, newFirsts, 0, size);
+		System.arraycopy(seconds, 0, newSeconds, 0, size);
+		firsts = newFirsts;
+		seconds = newSeconds;
+	}
+}
@@ -0,0 +1,123 @@
+package com.mycompany.a4;
+
+
+/**
+ * DirtyTileGrid divides a view into square tiles and records which of them need to be repainted.
+ * Rectangles are marked in pixels relative to the view's top left corner and rounded out to whole tiles,
+ * so any number of marks is repainted as a bounded number of tile runs.
+ *
+ * @author Eric Brown
+ */
+public class DirtyTileGrid {
+	private int tileSize;
+	private int columns = 0;
+	private int rows = 0;
+	private boolean[] marked = new boolean[0];
+	private int markedCount = 0;
+	
+	/**
+	 * Constructor for DirtyTileGrid.
+	 *
+	 * @param tileSize			width and height of each tile in pixels
+	 */
+	public DirtyTileGrid(int tileSize) {
+		this.tileSize = tileSize;
+	}
+	
+	/**
+	 * Fits the grid to a view of the given size and clears it. The tiles are only reallocated if the
+	 * view needs more of them than before.
+	 *
+	 * @param width				width of the view in pixels
+	 * @param height			height of the view in pixels
+	 */
+	public void resize(int width, int height) {
+		columns = Math.max(0, (width + tileSize - 1) / tileSize);
+		rows = Math.max(0, (height + tileSize - 1) / tileSize);
+		
+		if (marked.length < columns * rows) {
+			marked = new boolean[columns * rows];
+		}
+		clear();
+	}
+	
+	/**
+	 * Unmarks every tile.
+	 */
+	public void clear() {
+		for (int i = 0; i < marked.length; i++) {
+			marked[i] = false;
+		}
+		markedCount = 0;
+	}
+	
+	/**
+	 * Marks every tile touched by a rectangle. Parts outside the view are ignored.
+	 *
+	 * @param left				smallest x of the rectangle
+	 * @param top				smallest y of the rectangle
+	 * @param right				largest x of the rectangle
+	 * @param bottom			largest y of the rectangle
+	 */
+	public void mark(float left, float top, float right, float bottom) {
+		int firstColumn = Math.max(0, (int) Math.floor(left / tileSize));
+		int lastColumn = Math.min(columns - 1, (int) Math.floor(right / tileSize));
+		int firstRow = Math.max(0, (int) Math.floor(top / tileSize));
+		int lastRow = Math.min(rows - 1, (int) Math.floor(bottom / tileSize));
+		
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				int index = row * columns + column;
+				
+				if (!marked[index]) {
+					marked[index] = true;
+					markedCount++;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param column			column of the tile
+	 * @param row				row of the tile
+	 * @return					true if the tile is marked
+	 */
+	public boolean isMarked(int column, int row) {
+		return marked[row * columns + column];
+	}
+	
+	/**
+	 * @return					number of marked tiles
+	 */
+	public int getMarkedCount() {
+		return this.markedCount;
+	}
+	
+	/**
+	 * @return					number of tiles in the grid
+	 */
+	public int getTileCount() {
+		return columns * rows;
+	}
+	
+	/**
+	 * @return					number of tile columns
+	 */
+	public int getColumns() {
+		return this.columns;
+	}
+	
+	/**
+	 * @return					number of tile rows
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+	
+	/**
+	 * @return					width and height of each tile in pixels
+	 */
+	public int getTileSize() {
+		return this.tileSize;
+	}
+}
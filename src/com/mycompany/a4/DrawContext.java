@@ -0,0 +1,148 @@
+package com.mycompany.a4;
+
+import com.codename1.ui.Graphics;
+import com.codename1.ui.Transform;
+
+
+/**
+ * DrawContext holds the scratch state game objects are drawn with: a stack of saved graphics transforms,
+ * the transforms used to compose new ones and the view's sprite atlas. Each view owns one and passes it
+ * to every draw, so drawing is reentrant and views on different threads never share scratch state.
+ * A context must only be used by one thread at a time.
+ * 
+ * @author Eric Brown
+ */
+public class DrawContext {
+	private static final int INITIAL_DEPTH = 4;
+	
+	private Transform[] saved = new Transform[INITIAL_DEPTH];  // Transforms to restore, innermost last.
+	private int depth = 0;
+	private Transform paintXform = Transform.makeIdentity();
+	private Transform rotateXform = Transform.makeIdentity();
+	private float[] originScratch = new float[2];
+	private float[] cornerScratch = new float[2];
+	private SpriteAtlas spriteAtlas = null;
+	
+	/**
+	 * Constructor for DrawContext.
+	 */
+	public DrawContext() {
+		for (int i = 0; i < saved.length; i++) {
+			saved[i] = Transform.makeIdentity();
+		}
+	}
+	
+	/**
+	 * Saves the graphics object's transform and concatenates another onto it. Must be followed by restore.
+	 * 
+	 * @param g					graphics object to transform
+	 * @param xform				transform to apply on top of the current one
+	 */
+	public void push(Graphics g, Transform xform) {
+		Transform current = save(g);
+		paintXform.setTransform(current);
+		paintXform.concatenate(xform);
+		g.setTransform(paintXform);
+	}
+	
+	/**
+	 * Saves the graphics object's transform and translates it. Must be followed by restore.
+	 * 
+	 * @param g					graphics object to translate
+	 * @param x					distance along x
+	 * @param y					distance along y
+	 */
+	public void pushTranslation(Graphics g, float x, float y) {
+		Transform current = save(g);
+		paintXform.setTransform(current);
+		paintXform.translate(x, y);
+		g.setTransform(paintXform);
+	}
+	
+	/**
+	 * Restores the transform saved by the matching push.
+	 * 
+	 * @param g					graphics object to restore
+	 */
+	public void restore(Graphics g) {
+		g.setTransform(saved[--depth]);
+	}
+	
+	/**
+	 * Scales the graphics object's current transform, without saving it.
+	 * 
+	 * @param g					graphics object to scale
+	 * @param x					x scale factor
+	 * @param y					y scale factor
+	 */
+	public void scale(Graphics g, float x, float y) {
+		g.getTransform(paintXform);
+		paintXform.scale(x, y);
+		g.setTransform(paintXform);
+	}
+	
+	/**
+	 * @param g					graphics object about to draw an object
+	 * @return					pixels per world unit along the x axis of the graphics object's transform
+	 */
+	public float getViewScale(Graphics g) {
+		g.getTransform(paintXform);
+		originScratch[0] = 0;
+		originScratch[1] = 0;
+		cornerScratch[0] = 1;
+		cornerScratch[1] = 0;
+		paintXform.transformPoint(originScratch, originScratch);
+		paintXform.transformPoint(cornerScratch, cornerScratch);
+		float deltaX = cornerScratch[0] - originScratch[0];
+		float deltaY = cornerScratch[1] - originScratch[1];
+		return (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+	}
+	
+	/**
+	 * Makes movable objects drawn with this context use sprites from an atlas, or their shapes when null.
+	 * A replaced atlas drops its sprites.
+	 * 
+	 * @param atlas				the atlas to draw with, or null
+	 */
+	public void setSpriteAtlas(SpriteAtlas atlas) {
+		if (spriteAtlas != null && spriteAtlas != atlas) {
+			spriteAtlas.clear();
+		}
+		this.spriteAtlas = atlas;
+	}
+	
+	/**
+	 * @return					atlas movable objects are drawn from, null to draw their shapes
+	 */
+	public SpriteAtlas getSpriteAtlas() {
+		return this.spriteAtlas;
+	}
+	
+	/**
+	 * @return					transform objects may build their rotation in while composing their model matrix
+	 */
+	public Transform getRotateTransform() {
+		return this.rotateXform;
+	}
+	
+	/**
+	 * Saves the graphics object's transform on the stack, growing it if needed.
+	 * 
+	 * @param g					graphics object whose transform to save
+	 * @return					the saved transform
+	 */
+	private Transform save(Graphics g) {
+		if (depth == saved.length) {
+			Transform[] grown = new Transform[saved.length * 2];
+			System.arraycopy(saved, 0, grown, 0, saved.length);
+			for (int i = saved.length; i < grown.length; i++) {
+				grown[i] = Transform.makeIdentity();
+			}
+			saved = grown;
+		}
+		
+		Transform current = saved[depth++];
+		g.getTransform(current);
+		return current;
+	}
+}
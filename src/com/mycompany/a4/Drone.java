@@ -2,7 +2,6 @@ package com.mycompany.a4;
 import java.util.Random;
 
 import com.codename1.ui.Graphics;
-import com.codename1.ui.Transform;
 import com.codename1.ui.geom.Point;
 
 
@@ -20,14 +19,30 @@ public class Drone extends Movable {
 	
 	private int worldBoundX;
 	private int worldBoundY;
+	private static final int SPRITE_KIND = 3;  // Distinct from PlayerRobot and NonPlayerRobot.
+	private Random generator;  // Each drone has its own, so drones moved on different threads stay deterministic.
+	private int[] xPoints = new int[3];  // Triangle points, built once since the size never changes.
+	private int[] yPoints = new int[3];
 	
 	/**
 	 * Constructor for Drone.
+	 * 
+	 * @param seed				seed for the drone's random heading changes
 	 */
-	public Drone(int size, int color, float locationX, float locationY, int initialSpeed, int initialHeading, int worldBoundX, int worldBoundY) {
+	public Drone(int size, int color, float locationX, float locationY, int initialSpeed, int initialHeading, int worldBoundX, int worldBoundY, long seed) {
 		super(size, color, locationX, locationY, initialSpeed, initialHeading);
 		this.worldBoundX = worldBoundX;
 		this.worldBoundY = worldBoundY;
+		this.generator = new Random(seed);
+		
+		float x = -this.getSize() / 2;
+		float y = -this.getSize() / 2;
+		xPoints[0] = (int) x;  // X locations of triangle points.
+		xPoints[1] = (int) (x + this.getSize());
+		xPoints[2] = (int) ((2 * x + this.getSize()) / 2);
+		yPoints[0] = (int) y;  // Y locations of triangle points.
+		yPoints[1] = (int) y;
+		yPoints[2] = (int) (y + this.getSize());
 	}
 	
 	
@@ -38,7 +53,6 @@ public class Drone extends Movable {
 	@Override
 	public void move(long milliseconds) {
 		int heading = getHeading();
-		Random generator = new Random(System.currentTimeMillis());
 		
 		// Change the heading by a small, random amount.
 		int headingIncrement = generator.nextInt(MAX_HEADING_INCREMENT);
@@ -92,27 +106,27 @@ public class Drone extends Movable {
 	}
 	
 	/**
-	 * Draws the drone on the map.
+	 * Draws the drone's triangle.
 	 */
 	@Override
-	public void draw(Graphics g) {
-		float x = -this.getSize() / 2;
-		float y = -this.getSize() / 2;
-				
-		Transform oldXform = Transform.makeIdentity();
-		g.getTransform(oldXform);
-		
-		applyTranslation(g);
-		applyRotation(g);
-		applyScale(g);
-		g.setColor(this.getColor());
-		
-		int[] xPoints = {(int) x, (int) (x + this.getSize()), (int) ((2 * x + this.getSize()) / 2)};  // X locations of triangle points.
-		int[] yPoints = {(int) y, (int) y, (int) (y + this.getSize())};  // Y locations of triangle points.
-		
+	protected void drawShape(Graphics g, int frame) {
 		g.setColor(this.getColor());
 		g.drawPolygon(xPoints, yPoints, 3);
-		
-		g.setTransform(oldXform);
+	}
+	
+	/**
+	 * @return					half the drone's size, plus the width of its outline
+	 */
+	@Override
+	protected int getShapeExtent() {
+		return this.getSize() / 2 + 1;
+	}
+	
+	/**
+	 * @return					kind of object in sprite keys
+	 */
+	@Override
+	protected int getSpriteKind() {
+		return SPRITE_KIND;
 	}
 }
@@ -1,7 +1,6 @@
 package com.mycompany.a4;
 import com.codename1.charts.util.ColorUtil;
 import com.codename1.ui.Graphics;
-import com.codename1.ui.Transform;
 import com.codename1.ui.geom.Point;
 
 
@@ -16,6 +15,7 @@ public class EnergyStation extends Fixed implements ICollider {
 	public static final int COLOR_FULL = ColorUtil.GREEN;  // Color of stations when they are full of energy.
 	public static final int COLOR_EMPTY = ColorUtil.rgb(245, 105, 105);  // Light red. Color of stations when they are empty.
 	private int capacity;
+	private String label;  // Capacity as drawn, only rebuilt when the capacity changes.
 	
 	/**
 	 * Constructor for the EnergyStation.
@@ -27,6 +27,7 @@ public class EnergyStation extends Fixed implements ICollider {
 	public EnergyStation(int size, float locationX, float locationY) {
 		super(size, COLOR_FULL, locationX, locationY);
 		this.capacity = size;
+		this.label = Integer.toString(size);
 	}
 	
 
@@ -38,6 +39,7 @@ public class EnergyStation extends Fixed implements ICollider {
 	public int drainEnergy() {
 		int energy = this.capacity;
 		this.capacity = 0;
+		this.label = Integer.toString(0);
 		this.setColor(COLOR_EMPTY);
 		
 		return energy;
@@ -50,6 +52,14 @@ public class EnergyStation extends Fixed implements ICollider {
 		return this.capacity > 0;
 	}
 	
+	/**
+	 * @return			text drawn on the station
+	 */
+	@Override
+	public String getLabel() {
+		return this.label;
+	}
+	
 	/**
 	 * @return			a string representing the energy station's current state (capacity)
 	 */
@@ -63,19 +73,15 @@ public class EnergyStation extends Fixed implements ICollider {
 	 * Draws the energy station to the screen.
 	 */
 	@Override
-	public void draw(Graphics g) {
+	public void draw(Graphics g, DrawContext context) {
 		float x = -this.getSize() / 2;
-		float y = -this.getSize() / 2;				
-		Transform oldXform = Transform.makeIdentity();
-		g.getTransform(oldXform);
+		float y = -this.getSize() / 2;
 		
-		applyTranslation(g);
-		applyRotation(g);
-		applyScale(g);
-		g.setColor(this.getColor());
+		applyModelTransform(g, context);
+		g.setColor(this.getDrawColor());
 		int size = this.getSize();
 		
-		if (isSelected()) {
+		if (isDrawnSelected()) {
 			g.drawArc((int) x, (int) y, size, size, 0, 360);
 		}
 		else {
@@ -83,13 +89,10 @@ public class EnergyStation extends Fixed implements ICollider {
 		}
 		
 		// Invert the text.
-		Transform t = Transform.makeIdentity();
-		g.getTransform(t);
-		t.scale(1, -1);
-		g.setTransform(t);
+		flipVertically(g, context);
 		g.setColor(ColorUtil.BLACK);
-		g.drawString(Integer.toString(this.capacity), (int) ((x * 2 + this.getSize()) / 2), (int) y - 200);
+		g.drawString(getDrawLabel(), (int) ((x * 2 + this.getSize()) / 2), (int) y - 200);
 		
-		g.setTransform(oldXform);
+		restoreTransform(g, context);
 	}
 }
@@ -9,8 +9,14 @@ import com.codename1.ui.geom.Point;
  * @author Eric Brown
  */
 public abstract class Fixed extends GameObject implements ISelectable {
+	private GameObjectCollection owner;  // Collection the object is in, told whenever the object looks different.
 	private boolean selected = false;
 	
+	// How the object is drawn, set by the view right before draw. Only touched by the thread that draws.
+	private int drawColor;
+	private boolean drawSelected = false;
+	private String drawLabel = "";
+	
 	/**
 	 * Base constructor for fixed objects.
 	 * @param size				size of the object
@@ -20,6 +26,7 @@ public abstract class Fixed extends GameObject implements ISelectable {
 	 */
 	public Fixed(int size, int color, float locationX, float locationY) {
 		super(size, color, locationX, locationY);
+		this.drawColor = color;
 	}
 	
 	
@@ -32,12 +39,104 @@ public abstract class Fixed extends GameObject implements ISelectable {
 		return "[Fixed] " + state;
 	}
 	
+	/**
+	 * @return			text drawn on the object
+	 */
+	public abstract String getLabel();
+	
+	/**
+	 * Sets how the object will look on the next call to draw. Views call this before drawing, either with
+	 * the object's own state or with a copy taken by the simulation thread.
+	 * 
+	 * @param color				color to draw with
+	 * @param selected			true to draw the object as selected
+	 * @param label				text to draw on the object
+	 */
+	public void setDrawAppearance(int color, boolean selected, String label) {
+		this.drawColor = color;
+		this.drawSelected = selected;
+		this.drawLabel = label;
+	}
+	
+	/**
+	 * @return			color the object will be drawn with, set by setDrawAppearance
+	 */
+	protected int getDrawColor() {
+		return this.drawColor;
+	}
+	
+	/**
+	 * @return			true if the object will be drawn as selected, set by setDrawAppearance
+	 */
+	protected boolean isDrawnSelected() {
+		return this.drawSelected;
+	}
+	
+	/**
+	 * @return			text that will be drawn on the object, set by setDrawAppearance
+	 */
+	protected String getDrawLabel() {
+		return this.drawLabel;
+	}
+	
+	/**
+	 * Setter for owner, called by the collection the object is added to or removed from.
+	 * 
+	 * @param owner			collection holding the object, null when it is in none
+	 */
+	void setOwner(GameObjectCollection owner) {
+		this.owner = owner;
+	}
+	
+	/**
+	 * Marks cached drawings of the objects in this object's collection out of date.
+	 */
+	protected void invalidate() {
+		GameObjectCollection collection = this.owner;
+		
+		if (collection != null) {
+			collection.invalidateFixed();
+		}
+	}
+	
 	/**
 	 * Setter for selected.
 	 */
 	@Override
 	public void setSelected(boolean selected) {
-		this.selected = selected;
+		if (this.selected != selected) {
+			this.selected = selected;
+			invalidate();
+		}
+	}
+	
+	/**
+	 * Setter for color.
+	 */
+	@Override
+	public void setColor(int color) {
+		if (this.getColor() != color) {
+			super.setColor(color);
+			invalidate();
+		}
+	}
+	
+	/**
+	 * Setter for locationX. Fixed objects are only moved by the player while the game is paused.
+	 */
+	@Override
+	public void setLocationX(float x) {
+		super.setLocationX(x);
+		invalidate();
+	}
+	
+	/**
+	 * Setter for locationY. Fixed objects are only moved by the player while the game is paused.
+	 */
+	@Override
+	public void setLocationY(float y) {
+		super.setLocationY(y);
+		invalidate();
 	}
 	
 	/**
@@ -24,10 +24,19 @@ import com.codename1.ui.Toolbar;
  *
  */
 
-public class Game extends Form implements Runnable {
+public class Game extends Form implements Runnable, IGameOverListener {
+	private static final int TIMER_PERIOD = 20;  // Milliseconds between calls to run.
+	private static final int DEFAULT_STEP_RATE = 50;  // Simulation steps per second.
+	private static final long NANOS_PER_MILLISECOND = 1000000;
+	private static final int SPRITE_ATLAS_PIXELS = 4 * 1024 * 1024;  // About 16 MB of ARGB sprites.
+	
 	private GameWorld gw;
 	private UITimer timer;
-	private long lastClockValue;
+	private long lastClockValue;  // System.nanoTime() at the previous call to run.
+	private long accumulator = 0;  // Nanoseconds of real time not simulated yet.
+	private int stepMillis;
+	private long stepNanos;
+	private SimulationThread simulation;  // Null unless the world is simulated on its own thread.
 	private Mode currentMode = Mode.PLAY;
 	
 	private MapView map;
@@ -50,10 +59,21 @@ public class Game extends Form implements Runnable {
 	}
 	
 	/**
-	 * Constructor for Game. Creates a game world, initializes it, and then starts a game.
+	 * Constructor for Game. Creates a game world, initializes it, and then starts a game with the
+	 * options saved from the side menu.
 	 */
 	public Game() {
+		this(GameOptions.load());
+	}
+	
+	/**
+	 * Constructor for Game. Creates a game world, initializes it, and then starts a game.
+	 * 
+	 * @param options					performance options to start the game with
+	 */
+	public Game(GameOptions options) {
 		instance = this;  // Reference used to query the game mode.
+		this.setStepRate(DEFAULT_STEP_RATE);
 		
 		this.setLayout(new BorderLayout());
 		gw  = new GameWorld();		
@@ -88,7 +108,8 @@ public class Game extends Form implements Runnable {
 		rightContainer.add(new Button(brakeCommand));
 		rightContainer.add(new Button(turnRightCommand));
 		
-		ScoreView score = new ScoreView();
+		// The painted HUD skips the labels and their layout passes, which matters when the world ticks often.
+		Component score = options.isPaintedHud() ? new ScoreHud() : new ScoreView();
 
 		// Add the containers to the screen.
 		this.add(BorderLayout.NORTH, score);
@@ -100,6 +121,8 @@ public class Game extends Form implements Runnable {
 		map = new MapView();
 		map.getAllStyles().setBorder(Border.createLineBorder(10, ColorUtil.rgb(255, 0, 0)));
 		this.add(BorderLayout.CENTER, map);
+		this.setSpriteAtlasEnabled(options.isSpriteAtlas());
+		this.setDrawStatsVisible(options.isDrawStats());
 		
 		// Create the side tool bar for the application.
 		Toolbar toolbar = new Toolbar();
@@ -112,6 +135,12 @@ public class Game extends Form implements Runnable {
 		soundCheckBox.setSelected(gw.getSoundEnabled());
 		toolbar.addComponentToSideMenu(soundCheckBox);
 		
+		// Add performance option toggles.
+		addOptionCheckBox(toolbar, new OptionCommand("Threaded Simulation", this, options), options.isThreadedSimulation());
+		addOptionCheckBox(toolbar, new OptionCommand("Painted Score", this, options), options.isPaintedHud());
+		addOptionCheckBox(toolbar, new OptionCommand("Sprite Atlas", this, options), options.isSpriteAtlas());
+		addOptionCheckBox(toolbar, new OptionCommand("Draw Stats", this, options), options.isDrawStats());
+		
 		// Add buttons for user information and quitting.
 		toolbar.addComponentToSideMenu(new Button(about));
 		toolbar.addComponentToSideMenu(new Button(exit));
@@ -119,7 +148,7 @@ public class Game extends Form implements Runnable {
 		toolbar.addCommandToRightBar(help);  // Right side of toolbar.
 		
 		// Style the containers and buttons.
-		for (Container c : new Container[] {leftContainer, rightContainer, bottomContainer, score}) {
+		for (Component c : new Component[] {leftContainer, rightContainer, bottomContainer, score}) {
 			c.getAllStyles().setBorder(Border.createLineBorder(3, ColorUtil.BLACK));
 		}
 		
@@ -170,18 +199,27 @@ public class Game extends Form implements Runnable {
 		map.initializeBoundaries();
 		gw.setWidth(map.getWidth());
 		gw.setHeight(map.getHeight());
-		gw.addObserver(score);
-		gw.addObserver(map);
+		gw.addListener((IGameWorldListener) score);
+		gw.addListener(map);
 		map.initializeBoundaries();
-		gw.init();  // Initialize the GameWorld at the end to notify all components (observers).
+		gw.init();  // Initialize the GameWorld at the end to notify all components (listeners).
+		gw.dispatchChanges();
+		
+		gw.setAudioSink(new SoundAudioSink());
+		gw.setGameOverListener(this);
+		
+		if (options.isThreadedSimulation()) {
+			simulation = new SimulationThread(gw, stepMillis);
+			map.setSnapshotBuffer(simulation.getSnapshotBuffer());
+			simulation.start();
+		}
 		
-		GameWorld.createSounds();
 		this.setGameMode(Mode.PLAY);
 		this.revalidate();
 		
-		lastClockValue = System.currentTimeMillis();
+		lastClockValue = System.nanoTime();
 		timer = new UITimer(this);
-		timer.schedule(20, true, this);
+		timer.schedule(TIMER_PERIOD, true, this);
 		
 		gw.setSoundEnabled(false);
 	}
@@ -230,12 +268,16 @@ public class Game extends Form implements Runnable {
 	public void setGameMode(Mode mode) {
 		this.currentMode = mode;
 		
+		if (simulation != null && mode == Mode.PAUSED) {
+			simulation.setPaused(true);  // Returns once the simulation is idle.
+		}
+		
 		if (this.currentMode == Mode.PAUSED) {
 			removeKeyListeners();
 			disableAllButtons();
 			modeButton.setCommand(playCommand);
 			positionButton.setEnabled(true);
-			GameWorld.stopAllSounds();
+			gw.stopAllSounds();
 		}
 		else if (this.currentMode == Mode.PLAY) {
 			addKeyListeners();
@@ -243,7 +285,12 @@ public class Game extends Form implements Runnable {
 			gw.deselectAllObjects();
 			modeButton.setCommand(pauseCommand);
 			positionButton.setEnabled(false);
-			GameWorld.playBackgroundSound();
+			gw.playBackgroundSound();
+			
+			// Only resumed once the world is ready to play, so the simulation never races the changes above.
+			if (simulation != null) {
+				simulation.setPaused(false);
+			}
 		}
 	}
 	
@@ -255,19 +302,120 @@ public class Game extends Form implements Runnable {
 	}
 	
 	/**
-	 * Called on every update cycle.
+	 * Sets how many fixed size simulation steps are run per second of real time. Steps are a whole
+	 * number of milliseconds, so rates that don't divide 1000 are rounded down to the nearest one that does.
+	 * 
+	 * @param stepsPerSecond			simulation steps per second
+	 */
+	public void setStepRate(int stepsPerSecond) {
+		this.stepMillis = Math.max(1, 1000 / stepsPerSecond);
+		this.stepNanos = stepMillis * NANOS_PER_MILLISECOND;
+		
+		if (simulation != null) {
+			simulation.setStepMillis(stepMillis);
+		}
+	}
+	
+	/**
+	 * Switches drawing robots and drones with pre-rendered sprites on or off. Sprites trade a little
+	 * heading accuracy for one image per object, which helps crowded maps.
+	 * 
+	 * @param enabled					true to draw with a sprite atlas, false to draw shapes
+	 */
+	public void setSpriteAtlasEnabled(boolean enabled) {
+		map.setSpriteAtlas(enabled ? new SpriteAtlas(SPRITE_ATLAS_PIXELS) : null);
+		map.repaint();
+	}
+	
+	/**
+	 * Shows or hides how many objects the map drew and culled on each frame.
+	 * 
+	 * @param enabled					true to show the counts over the map
+	 */
+	public void setDrawStatsVisible(boolean enabled) {
+		map.setDrawStatsVisible(enabled);
+		map.repaint();
+	}
+	
+	/**
+	 * Adds a check box for a performance option to the side menu.
+	 * 
+	 * @param toolbar					toolbar holding the side menu
+	 * @param command					command that toggles the option
+	 * @param selected					true if the option is currently on
+	 */
+	private void addOptionCheckBox(Toolbar toolbar, OptionCommand command, boolean selected) {
+		CheckBox checkBox = new CheckBox();
+		checkBox.setCommand(command);
+		checkBox.setSelected(selected);
+		toolbar.addComponentToSideMenu(checkBox);
+	}
+	
+	/**
+	 * Called on every update cycle. Real time is accumulated and the world is advanced in fixed steps,
+	 * so a slow frame results in more steps rather than one large step. The map is drawn part way between
+	 * the last two steps according to the time left over.
+	 * 
+	 * When the world is simulated on its own thread this only shows the changes the simulation made.
+	 * 
+	 * Listeners are told about everything that changed since the last frame in one go, and the map is
+	 * repainted at most once.
 	 */
 	@Override
 	public void run() {
-		long currentClockValue = System.currentTimeMillis();
-		long milliseconds = currentClockValue - lastClockValue;
+		if (simulation != null) {
+			showChanges();
+			return;
+		}
+		
+		long currentClockValue = System.nanoTime();
+		long elapsed = currentClockValue - lastClockValue;
 		lastClockValue = currentClockValue;
 		
 		if (currentMode == Mode.PLAY) {
-			gw.tick(milliseconds);
+			accumulator += elapsed;
+			int steps = 0;
+			
+			while (accumulator >= stepNanos && steps < SimulationThread.MAX_CATCH_UP_STEPS) {
+				gw.tick(stepMillis);
+				accumulator -= stepNanos;
+				steps++;
+			}
+			
+			// Too far behind (e.g. a long GC pause), drop the backlog instead of trying to catch up.
+			if (accumulator >= stepNanos) {
+				accumulator %= stepNanos;
+			}
+			
+			map.setInterpolation((float) accumulator / stepNanos);
 		}
 		else {
-			map.repaint();
+			accumulator = 0;
+			map.setInterpolation(1);
+		}
+		showChanges();
+	}
+	
+	/**
+	 * Dispatches the world's changes to the views. While playing, objects are drawn further along every
+	 * frame even without a new step, so the map repaints around them if the listeners didn't already.
+	 */
+	private void showChanges() {
+		int changes = gw.dispatchChanges();
+		
+		if (currentMode == Mode.PLAY && (changes & IGameWorldListener.OBJECTS) == 0) {
+			map.repaintChanged();
+		}
+	}
+	
+	/**
+	 * Quits the application when the game is won or lost.
+	 */
+	@Override
+	public void gameOver(GameWorld world, boolean playerWon, String message) {
+		if (simulation != null) {
+			simulation.stop();
 		}
+		System.exit(0);
 	}
 }
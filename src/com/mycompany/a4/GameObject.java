@@ -11,12 +11,25 @@ import com.codename1.ui.Transform;
  *
  */
 public abstract class GameObject implements ICollider, IDrawable {
+	private static int nextId = 0;  // Shared by every world, so only handed out through allocateId.
+	
+	private final int id;  // Stable for the lifetime of the object, never reused.
+	int[] listPositions = new int[GameObjectList.SLOT_COUNT];  // Position within each list slot, -1 when not in one.
 	private int size;
 	private int color;
 	
 	private Transform myTranslate = Transform.makeIdentity();
-	private Transform myRotate = Transform.makeIdentity();
 	private Transform myScale = Transform.makeIdentity();
+	private float rotation = 0;  // Angle last passed to setRotation.
+	
+	// Translation, rotation and scale composed into one matrix, only rebuilt when one of them changes.
+	private Transform modelXform = Transform.makeIdentity();
+	private boolean modelDirty = true;
+	
+	// Where the object is drawn, set by the view right before draw. Only touched by the thread that draws.
+	private float drawX;
+	private float drawY;
+	private float drawRotation;
 	
 	
 	/**
@@ -28,9 +41,24 @@ public abstract class GameObject implements ICollider, IDrawable {
 	 * @param locationY		y coordinate of object's location
 	 */
 	public GameObject(int size, int color, float locationX, float locationY) {
+		this.id = allocateId();
+		for (int i = 0; i < listPositions.length; i++) {
+			listPositions[i] = -1;
+		}
 		this.size = size;
 		this.color = color;
 		translate(locationX, locationY);
+		setDrawState(locationX, locationY, 0);
+	}
+	
+	/**
+	 * Hands out the next id. Worlds may create objects on different threads at the same time, and ids key
+	 * contacts and the order collisions are handled in, so no two objects may ever get the same one.
+	 * 
+	 * @return				an id no other object has
+	 */
+	private static synchronized int allocateId() {
+		return nextId++;
 	}
 	
 	/**
@@ -43,21 +71,46 @@ public abstract class GameObject implements ICollider, IDrawable {
 	}
 	
 	/**
-	 * Rotates the objects rotation transform
+	 * Rotates the object by an additional angle
 	 * @param angle
 	 */
 	public void rotate(float angle) {
-		this.myRotate.rotate(angle, 0, 0);
+		this.setRotation(this.rotation + angle);
 	}
 	
 	/**
-	 * Sets the objects rotation to a specified angle
+	 * Sets the objects rotation to a specified angle. The rotation transform itself is only built when
+	 * the object is drawn, so the simulation never touches it.
 	 * @param angle				angle to rotate to
 	 */
 	public void setRotation(float angle) {
-		Transform rotation = Transform.makeIdentity();
-		rotation.setRotation(-angle, -size/5, size);
-		this.myRotate = rotation;
+		this.rotation = angle;
+	}
+	
+	/**
+	 * Getter for rotation.
+	 * 
+	 * @return					current rotation angle in radians
+	 */
+	public float getRotation() {
+		return this.rotation;
+	}
+	
+	/**
+	 * Sets where the object will be drawn on the next call to draw. Views call this before drawing, either
+	 * with the live render location or with values captured in a WorldSnapshot.
+	 * 
+	 * @param x					x coordinate to draw at
+	 * @param y					y coordinate to draw at
+	 * @param rotation			rotation angle to draw with
+	 */
+	public void setDrawState(float x, float y, float rotation) {
+		if (x != drawX || y != drawY || rotation != drawRotation) {
+			this.drawX = x;
+			this.drawY = y;
+			this.drawRotation = rotation;
+			this.modelDirty = true;
+		}
 	}
 	
 	/**
@@ -67,46 +120,91 @@ public abstract class GameObject implements ICollider, IDrawable {
 	 * @param y					y scale factor
 	 */
 	public void scale(float x, float y) {
-		this.myTranslate.scale(x, y);
+		this.myScale.scale(x, y);
+		this.modelDirty = true;
 	}
 	
 	/**
-	 * Applies the local translation to the graphics object g.
-	 * @param g						graphics object to apply translation to
+	 * Saves the graphics object's transform and applies the object's model matrix (local translation,
+	 * rotation and scale) on top of it. Must be followed by restoreTransform once the object is drawn.
+	 * 
+	 * @param g						graphics object to apply the model matrix to
+	 * @param context				scratch state of the view drawing the object
 	 */
-	public void applyTranslation(Graphics g) {
-		Transform gXform = Transform.makeIdentity();
-		g.getTransform(gXform);
-		
-		gXform.translate(myTranslate.getTranslateX(), myTranslate.getTranslateY());
-		
-		g.setTransform(gXform);
+	public void applyModelTransform(Graphics g, DrawContext context) {
+		if (modelDirty) {
+			Transform rotateXform = context.getRotateTransform();
+			buildRotation(rotateXform, drawRotation);
+			modelXform.setTranslation(drawX, drawY);
+			modelXform.concatenate(rotateXform);
+			modelXform.concatenate(myScale);
+			modelDirty = false;
+		}
+		context.push(g, modelXform);
 	}
 	
 	/**
-	 * Applies the local rotation to the graphics object g.
-	 * @param g						graphics object to apply rotation to
+	 * Saves the graphics object's transform and moves its origin to where the object is drawn, without
+	 * rotating or scaling. Must be followed by restoreTransform once the object is drawn.
+	 * 
+	 * @param g						graphics object to translate
+	 * @param context				scratch state of the view drawing the object
 	 */
-	public void applyRotation(Graphics g) {
-		Transform gXform = Transform.makeIdentity();
-		g.getTransform(gXform);
-		
-		gXform.concatenate(myRotate);
-		
-		g.setTransform(gXform);
+	public void applyDrawTranslation(Graphics g, DrawContext context) {
+		context.pushTranslation(g, drawX, drawY);
 	}
 	
 	/**
-	 * Applies the local scale to the graphics object g.
-	 * @param g						graphics object to apply scale to
+	 * Sets a transform to the rotation the object is drawn with at a given angle.
+	 * 
+	 * @param xform					transform to set
+	 * @param angle					rotation angle in radians
 	 */
-	public void applyScale(Graphics g) {
-		Transform gXform = Transform.makeIdentity();
-		g.getTransform(gXform);
-		
-		gXform.concatenate(myScale);
-		
-		g.setTransform(gXform);
+	protected void buildRotation(Transform xform, float angle) {
+		xform.setRotation(-angle, -size/5, size);
+	}
+	
+	/**
+	 * @return						rotation angle the object will be drawn with, set by setDrawState
+	 */
+	public float getDrawRotation() {
+		return this.drawRotation;
+	}
+	
+	/**
+	 * @return						true if the object's scale transform was changed with scale
+	 */
+	public boolean isScaled() {
+		return !this.myScale.isIdentity();
+	}
+	
+	/**
+	 * Flips the y axis of the graphics object's current transform, so text drawn next is upright.
+	 * 
+	 * @param g						graphics object to flip
+	 * @param context				scratch state of the view drawing the object
+	 */
+	public void flipVertically(Graphics g, DrawContext context) {
+		context.scale(g, 1, -1);
+	}
+	
+	/**
+	 * Restores the transform the graphics object had before applyModelTransform or applyDrawTranslation.
+	 * 
+	 * @param g						graphics object to restore
+	 * @param context				scratch state of the view drawing the object
+	 */
+	public void restoreTransform(Graphics g, DrawContext context) {
+		context.restore(g);
+	}
+	
+	/**
+	 * Getter for id.
+	 * 
+	 * @return		unique id of the object
+	 */
+	public int getId() {
+		return this.id;
 	}
 	
 	/**
@@ -157,6 +255,38 @@ public abstract class GameObject implements ICollider, IDrawable {
 	}
 	
 	
+	/**
+	 * @return		x coordinate at the start of the current simulation step, the current location by default
+	 */
+	public float getPreviousLocationX() {
+		return this.getLocationX();
+	}
+	
+	/**
+	 * @return		y coordinate at the start of the current simulation step, the current location by default
+	 */
+	public float getPreviousLocationY() {
+		return this.getLocationY();
+	}
+	
+	/**
+	 * @param alpha	how far between the last two simulation steps, 0 for the previous step and 1 for the current
+	 * @return		x coordinate interpolated between the previous and current simulation step
+	 */
+	public float getRenderLocationX(float alpha) {
+		float previous = getPreviousLocationX();
+		return previous + (getLocationX() - previous) * alpha;
+	}
+	
+	/**
+	 * @param alpha	how far between the last two simulation steps, 0 for the previous step and 1 for the current
+	 * @return		y coordinate interpolated between the previous and current simulation step
+	 */
+	public float getRenderLocationY(float alpha) {
+		float previous = getPreviousLocationY();
+		return previous + (getLocationY() - previous) * alpha;
+	}
+	
 	/**
 	 * Getter for color.
 	 * 
@@ -183,34 +313,52 @@ public abstract class GameObject implements ICollider, IDrawable {
 				+ "Color: " + this.color + ", Size: " + this.size;
 	}
 	
+	/**
+	 * @return			x coordinate of the left edge of the object's bounding box
+	 */
+	public float getBoundsLeft() {
+		return this.getLocationX() - this.getSize() / 2;
+	}
+	
+	/**
+	 * @return			x coordinate of the right edge of the object's bounding box
+	 */
+	public float getBoundsRight() {
+		return this.getBoundsLeft() + this.getSize();
+	}
+	
+	/**
+	 * @return			y coordinate of the top edge of the object's bounding box
+	 */
+	public float getBoundsTop() {
+		return this.getLocationY() + this.getSize() / 2;
+	}
+	
+	/**
+	 * @return			y coordinate of the bottom edge of the object's bounding box
+	 */
+	public float getBoundsBottom() {
+		return this.getBoundsTop() - this.getSize();
+	}
+	
 	/**
 	 * Checks for collisions between two game objects (squares).
 	 */
 	@Override
 	public boolean collidesWith(GameObject otherObject) {
-		float thisLeft = this.getLocationX() - this.getSize() / 2;
-		float otherLeft = otherObject.getLocationX() - otherObject.getSize() / 2;
-		float thisRight = thisLeft + this.getSize();
-		float otherRight = otherLeft + otherObject.getSize();
-		
 		// Check for lack of horizontal overlap for the objects.
-		if (thisLeft > otherRight) {
+		if (this.getBoundsLeft() > otherObject.getBoundsRight()) {
 			return false;
 		}
-		else if (thisRight < otherLeft) {
+		else if (this.getBoundsRight() < otherObject.getBoundsLeft()) {
 			return false;
 		}
 		
-		float thisTop = this.getLocationY() + this.getSize() / 2;
-		float otherTop = otherObject.getLocationY() + otherObject.getSize() / 2;
-		float thisBottom = thisTop - this.getSize();
-		float otherBottom = otherTop - otherObject.getSize();
-		
 		// Check for lack of vertical overlap for the objects.
-		if (thisTop < otherBottom) {
+		if (this.getBoundsTop() < otherObject.getBoundsBottom()) {
 			return false;
 		}
-		else if (thisBottom > otherTop) {
+		else if (this.getBoundsBottom() > otherObject.getBoundsTop()) {
 			return false;
 		}
 		
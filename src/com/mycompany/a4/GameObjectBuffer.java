@@ -0,0 +1,55 @@
+package com.mycompany.a4;
+
+
+/**
+ * GameObjectBuffer is a list of game objects that is filled and cleared over and over, such as the
+ * result of a spatial query. The backing array is reused, so filling the buffer does not create
+ * garbage once it has grown to the size of the largest fill.
+ *
+ * @author Eric Brown
+ */
+public class GameObjectBuffer {
+	private static final int INITIAL_CAPACITY = 64;
+	
+	private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+	private int size = 0;
+	
+	/**
+	 * Adds an object to the buffer.
+	 *
+	 * @param object			the object to add
+	 */
+	public void add(GameObject object) {
+		if (size == objects.length) {
+			GameObject[] grown = new GameObject[objects.length * 2];
+			System.arraycopy(objects, 0, grown, 0, size);
+			objects = grown;
+		}
+		objects[size++] = object;
+	}
+	
+	/**
+	 * Removes all the objects from the buffer.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {  // Drop the references so removed objects can be collected.
+			objects[i] = null;
+		}
+		size = 0;
+	}
+	
+	/**
+	 * @return					number of objects in the buffer
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @param index				position within [0, size)
+	 * @return					the object at the position
+	 */
+	public GameObject get(int index) {
+		return objects[index];
+	}
+}
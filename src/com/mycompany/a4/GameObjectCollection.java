@@ -1,19 +1,48 @@
 package com.mycompany.a4;
 
-import java.util.Vector;
+import java.util.ArrayList;
 
 
 /**
  * GameObjectCollection represents a collection of game objects and exposes methods
  * to add objects to the collection as well as obtain an iterator for iteration over the objects.
  * 
+ * The objects are kept in plain arrays with constant time removal, so the order of the objects is not
+ * preserved across removals. Alongside the full list the collection keeps read-only views of the objects
+ * by type, updated on every add and remove, so callers only walk the objects they care about. The
+ * collection is not synchronized and must only be used from one thread.
+ * 
  * @author Eric Brown
  */
 public class GameObjectCollection implements ICollection {
-	private Vector<GameObject> collection = new Vector<GameObject>();
+	// Position slots used by the lists. Views sharing a slot must never hold the same object.
+	private static final int ALL_SLOT = 0;
+	private static final int CATEGORY_SLOT = 1;  // Movable or Fixed.
+	private static final int KIND_SLOT = 2;  // Base, EnergyStation or NonPlayerRobot.
+	private static final int SELECTABLE_SLOT = 3;
+	
+	private GameObjectList collection = new GameObjectList(ALL_SLOT);
+	private GameObjectList movables = new GameObjectList(CATEGORY_SLOT);
+	private GameObjectList fixed = new GameObjectList(CATEGORY_SLOT);
+	private GameObjectList bases = new GameObjectList(KIND_SLOT);
+	private GameObjectList energyStations = new GameObjectList(KIND_SLOT);
+	private GameObjectList nonPlayerRobots = new GameObjectList(KIND_SLOT);
+	private GameObjectList selectables = new GameObjectList(SELECTABLE_SLOT);
+	private GameObjectList[] lists = {collection, movables, fixed, bases, energyStations, nonPlayerRobots, selectables};
+	
+	// Structural changes requested while the objects are being walked, applied by applyQueuedChanges.
+	private ArrayList<GameObject> queuedAdds = new ArrayList<GameObject>();
+	private ArrayList<GameObject> queuedRemovals = new ArrayList<GameObject>();
+	
+	private int modificationCount = 0;  // Incremented whenever an object is added or removed.
+	private volatile int fixedRevision = 0;  // Incremented whenever a Fixed object in the collection looks different.
+	
+	// Bases indexed by sequence number. Holds the Base objects themselves, so moving a base needs no update.
+	private Base[] basesBySequence = new Base[16];
 	
 	/**
-	 * Returns an iterator to iterate over the objects in the collection.
+	 * Returns an iterator to iterate over the objects in the collection. Hot paths should prefer
+	 * size() and get(int), which don't allocate.
 	 * 
 	 * @return					collection iterator
 	 */
@@ -22,14 +51,37 @@ public class GameObjectCollection implements ICollection {
 	}
 	
 	/**
-	 * Adds an object to the collection.
+	 * Adds an object to the collection and to the views matching its type. An object can only belong
+	 * to one collection at a time.
 	 * 
 	 * @param object			the object to add to the collection
 	 */
 	@Override
 	public void add(GameObject object) {
 		collection.add(object);
+		modificationCount++;
+		
+		GameObjectList category = categoryOf(object);
+		if (category != null) {
+			category.add(object);
+		}
+		
+		GameObjectList kind = kindOf(object);
+		if (kind != null) {
+			kind.add(object);
+		}
 		
+		if (object instanceof ISelectable) {
+			selectables.add(object);
+		}
+		
+		if (object instanceof Fixed) {
+			((Fixed) object).setOwner(this);
+		}
+		
+		if (object instanceof Base) {
+			registerBase((Base) object);
+		}
 	}
 	
 	/**
@@ -37,17 +89,249 @@ public class GameObjectCollection implements ICollection {
 	 */
 	@Override
 	public void clear() {
-		collection.clear();
+		for (int i = 0; i < fixed.size(); i++) {
+			((Fixed) fixed.get(i)).setOwner(null);
+		}
+		
+		for (GameObjectList list : lists) {
+			list.clear();
+		}
+		modificationCount++;
+		
+		for (int i = 0; i < basesBySequence.length; i++) {
+			basesBySequence[i] = null;
+		}
+		
+		queuedAdds.clear();
+		queuedRemovals.clear();
 	}
 	
 	/**
-	 * Removes an object from the collection.
+	 * Removes an object from the collection and its views.
 	 * 
 	 * @param object		the object to remove from the collection
 	 */
 	@Override
 	public void remove(GameObject object) {
+		if (!collection.contains(object)) {
+			return;
+		}
+		
 		collection.remove(object);
+		modificationCount++;
+		
+		GameObjectList category = categoryOf(object);
+		if (category != null) {
+			category.remove(object);
+		}
+		
+		GameObjectList kind = kindOf(object);
+		if (kind != null) {
+			kind.remove(object);
+		}
+		
+		selectables.remove(object);
+		
+		if (object instanceof Fixed) {
+			((Fixed) object).setOwner(null);
+		}
+		
+		if (object instanceof Base) {
+			int sequenceNumber = ((Base) object).getSequenceNumber();
+			if (getBase(sequenceNumber) == object) {
+				basesBySequence[sequenceNumber] = null;
+			}
+		}
+	}
+	
+	/**
+	 * Queues an object to be added the next time applyQueuedChanges is called. Use this instead of add
+	 * while the collection or one of its views is being walked.
+	 * 
+	 * @param object		the object to add
+	 */
+	public void queueAdd(GameObject object) {
+		queuedAdds.add(object);
+	}
+	
+	/**
+	 * Queues an object to be removed the next time applyQueuedChanges is called. Use this instead of
+	 * remove while the collection or one of its views is being walked.
+	 * 
+	 * @param object		the object to remove
+	 */
+	public void queueRemove(GameObject object) {
+		queuedRemovals.add(object);
+	}
+	
+	/**
+	 * Applies the queued additions and then the queued removals in one batch.
+	 */
+	public void applyQueuedChanges() {
+		for (int i = 0; i < queuedAdds.size(); i++) {
+			add(queuedAdds.get(i));
+		}
+		queuedAdds.clear();
+		
+		for (int i = 0; i < queuedRemovals.size(); i++) {
+			remove(queuedRemovals.get(i));
+		}
+		queuedRemovals.clear();
+	}
+	
+	/**
+	 * @param object		object to look for
+	 * @return				true if the object is in the collection
+	 */
+	public boolean contains(GameObject object) {
+		return collection.contains(object);
+	}
+	
+	/**
+	 * @return				number of objects in the collection
+	 */
+	@Override
+	public int size() {
+		return collection.size();
+	}
+	
+	/**
+	 * @param index			position within [0, size)
+	 * @return				the object at that position
+	 */
+	@Override
+	public GameObject get(int index) {
+		return collection.get(index);
+	}
+	
+	/**
+	 * @return				view of the Movable objects in the collection
+	 */
+	public GameObjectList getMovables() {
+		return this.movables;
+	}
+	
+	/**
+	 * @return				view of the Fixed objects in the collection
+	 */
+	public GameObjectList getFixed() {
+		return this.fixed;
+	}
+	
+	/**
+	 * @return				view of the Bases in the collection
+	 */
+	public GameObjectList getBases() {
+		return this.bases;
+	}
+	
+	/**
+	 * Looks up a base by its sequence number in constant time.
+	 * 
+	 * @param sequenceNumber		sequence number of the base
+	 * @return						the base with that sequence number, null if there isn't one
+	 */
+	public Base getBase(int sequenceNumber) {
+		if (sequenceNumber < 0 || sequenceNumber >= basesBySequence.length) {
+			return null;
+		}
+		return basesBySequence[sequenceNumber];
+	}
+	
+	/**
+	 * @return				number of times objects have been added or removed, to tell whether the collection changed
+	 */
+	public int getModificationCount() {
+		return this.modificationCount;
+	}
+	
+	/**
+	 * Views that cache drawings of the collection's Fixed objects redraw them when this changes.
+	 * 
+	 * @return				revision of the appearance of the Fixed objects in the collection
+	 */
+	public int getFixedRevision() {
+		return this.fixedRevision;
+	}
+	
+	/**
+	 * Marks every cached drawing of the collection's Fixed objects out of date. Fixed objects are changed
+	 * from both the simulation and the UI thread, so the increment is synchronized.
+	 */
+	synchronized void invalidateFixed() {
+		fixedRevision++;
+	}
+	
+	/**
+	 * @return				view of the EnergyStations in the collection
+	 */
+	public GameObjectList getEnergyStations() {
+		return this.energyStations;
+	}
+	
+	/**
+	 * @return				view of the NonPlayerRobots in the collection
+	 */
+	public GameObjectList getNonPlayerRobots() {
+		return this.nonPlayerRobots;
+	}
+	
+	/**
+	 * @return				view of the ISelectable objects in the collection
+	 */
+	public GameObjectList getSelectables() {
+		return this.selectables;
+	}
+	
+	/**
+	 * Adds a base to the sequence number index, growing the index if needed.
+	 * 
+	 * @param base			the base to index
+	 */
+	private void registerBase(Base base) {
+		int sequenceNumber = base.getSequenceNumber();
+		
+		if (sequenceNumber < 0) {
+			return;
+		}
+		
+		if (sequenceNumber >= basesBySequence.length) {
+			Base[] grown = new Base[Math.max(basesBySequence.length * 2, sequenceNumber + 1)];
+			System.arraycopy(basesBySequence, 0, grown, 0, basesBySequence.length);
+			basesBySequence = grown;
+		}
+		basesBySequence[sequenceNumber] = base;
+	}
+	
+	/**
+	 * @param object		object to classify
+	 * @return				the Movable or Fixed view for the object, null if it is neither
+	 */
+	private GameObjectList categoryOf(GameObject object) {
+		if (object instanceof Movable) {
+			return movables;
+		}
+		else if (object instanceof Fixed) {
+			return fixed;
+		}
+		return null;
+	}
+	
+	/**
+	 * @param object		object to classify
+	 * @return				the view for the object's concrete kind, null if it doesn't have one
+	 */
+	private GameObjectList kindOf(GameObject object) {
+		if (object instanceof Base) {
+			return bases;
+		}
+		else if (object instanceof EnergyStation) {
+			return energyStations;
+		}
+		else if (object instanceof NonPlayerRobot) {
+			return nonPlayerRobots;
+		}
+		return null;
 	}
 	
 	/**
@@ -72,7 +356,7 @@ public class GameObjectCollection implements ICollection {
 		@Override
 		public GameObject getNext() {
 			if (this.hasNext()) {
-				return collection.elementAt(this.index++);
+				return collection.get(this.index++);
 			}
 			
 			return null;
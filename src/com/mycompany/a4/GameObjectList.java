@@ -0,0 +1,101 @@
+package com.mycompany.a4;
+
+
+/**
+ * GameObjectList is an unsynchronized, array-backed list of game objects with constant time removal.
+ * Each object records its position within the list in the slot the list was created with, so an object
+ * can be in several lists at once as long as they use different slots. Removing an object moves the
+ * last object into its place, so the order of the objects is not preserved.
+ * 
+ * @author Eric Brown
+ */
+public class GameObjectList {
+	public static final int SLOT_COUNT = 4;  // Number of lists an object can belong to at the same time.
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private final int slot;
+	private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+	private int size = 0;
+	
+	/**
+	 * Constructor for GameObjectList.
+	 * 
+	 * @param slot				which of the object's position slots this list uses, within [0, SLOT_COUNT)
+	 */
+	GameObjectList(int slot) {
+		this.slot = slot;
+	}
+	
+	/**
+	 * Adds an object to the list.
+	 * 
+	 * @param object			the object to add
+	 */
+	void add(GameObject object) {
+		if (object.listPositions[slot] >= 0) {
+			throw new IllegalArgumentException("Object is already in a list using slot " + slot + ": " + object);
+		}
+		
+		if (size == objects.length) {
+			GameObject[] grown = new GameObject[objects.length * 2];
+			System.arraycopy(objects, 0, grown, 0, size);
+			objects = grown;
+		}
+		
+		object.listPositions[slot] = size;
+		objects[size++] = object;
+	}
+	
+	/**
+	 * Removes an object from the list if it is present.
+	 * 
+	 * @param object			the object to remove
+	 */
+	void remove(GameObject object) {
+		if (!contains(object)) {
+			return;
+		}
+		
+		int index = object.listPositions[slot];
+		GameObject last = objects[--size];
+		objects[index] = last;
+		last.listPositions[slot] = index;
+		objects[size] = null;
+		object.listPositions[slot] = -1;
+	}
+	
+	/**
+	 * Removes every object from the list.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			objects[i].listPositions[slot] = -1;
+			objects[i] = null;
+		}
+		size = 0;
+	}
+	
+	/**
+	 * @param object			object to look for
+	 * @return					true if the object is in the list
+	 */
+	public boolean contains(GameObject object) {
+		int index = object.listPositions[slot];
+		return index >= 0 && index < size && objects[index] == object;
+	}
+	
+	/**
+	 * @return					number of objects in the list
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @param index				position within [0, size)
+	 * @return					the object at that position
+	 */
+	public GameObject get(int index) {
+		return this.objects[index];
+	}
+}
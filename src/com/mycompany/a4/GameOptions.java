@@ -0,0 +1,110 @@
+package com.mycompany.a4;
+
+import com.codename1.io.Preferences;
+
+
+/**
+ * GameOptions holds the performance options a game is started with. Options are saved to the device's
+ * preferences, so what the player picks from the side menu is used the next time the game starts.
+ * 
+ * @author Eric Brown
+ */
+public class GameOptions {
+	private static final String THREADED_SIMULATION_KEY = "threadedSimulation";
+	private static final String PAINTED_HUD_KEY = "paintedHud";
+	private static final String SPRITE_ATLAS_KEY = "spriteAtlas";
+	private static final String DRAW_STATS_KEY = "drawStats";
+	
+	private boolean threadedSimulation = false;
+	private boolean paintedHud = false;
+	private boolean spriteAtlas = false;
+	private boolean drawStats = false;
+	
+	/**
+	 * Loads the options saved by the last call to save, or the defaults if they were never saved.
+	 * 
+	 * @return					the saved options
+	 */
+	public static GameOptions load() {
+		GameOptions options = new GameOptions();
+		options.threadedSimulation = Preferences.get(THREADED_SIMULATION_KEY, false);
+		options.paintedHud = Preferences.get(PAINTED_HUD_KEY, false);
+		options.spriteAtlas = Preferences.get(SPRITE_ATLAS_KEY, false);
+		options.drawStats = Preferences.get(DRAW_STATS_KEY, false);
+		return options;
+	}
+	
+	/**
+	 * Saves the options to the device's preferences.
+	 */
+	public void save() {
+		Preferences.set(THREADED_SIMULATION_KEY, threadedSimulation);
+		Preferences.set(PAINTED_HUD_KEY, paintedHud);
+		Preferences.set(SPRITE_ATLAS_KEY, spriteAtlas);
+		Preferences.set(DRAW_STATS_KEY, drawStats);
+	}
+	
+	/**
+	 * Setter for threadedSimulation.
+	 * 
+	 * @param threadedSimulation	true to simulate the world on its own thread instead of the UI thread
+	 */
+	public void setThreadedSimulation(boolean threadedSimulation) {
+		this.threadedSimulation = threadedSimulation;
+	}
+	
+	/**
+	 * Setter for paintedHud.
+	 * 
+	 * @param paintedHud			true to show the score with a ScoreHud instead of a ScoreView
+	 */
+	public void setPaintedHud(boolean paintedHud) {
+		this.paintedHud = paintedHud;
+	}
+	
+	/**
+	 * Setter for spriteAtlas.
+	 * 
+	 * @param spriteAtlas			true to draw robots and drones with pre-rendered sprites
+	 */
+	public void setSpriteAtlas(boolean spriteAtlas) {
+		this.spriteAtlas = spriteAtlas;
+	}
+	
+	/**
+	 * Setter for drawStats.
+	 * 
+	 * @param drawStats			true to show how many objects the map drew and culled each frame
+	 */
+	public void setDrawStats(boolean drawStats) {
+		this.drawStats = drawStats;
+	}
+	
+	/**
+	 * @return					true if the world is simulated on its own thread
+	 */
+	public boolean isThreadedSimulation() {
+		return this.threadedSimulation;
+	}
+	
+	/**
+	 * @return					true if the score is shown with a ScoreHud
+	 */
+	public boolean isPaintedHud() {
+		return this.paintedHud;
+	}
+	
+	/**
+	 * @return					true if robots and drones are drawn with pre-rendered sprites
+	 */
+	public boolean isSpriteAtlas() {
+		return this.spriteAtlas;
+	}
+	
+	/**
+	 * @return					true if the map shows how many objects it drew and culled each frame
+	 */
+	public boolean isDrawStats() {
+		return this.drawStats;
+	}
+}
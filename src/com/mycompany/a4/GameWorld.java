@@ -1,15 +1,12 @@
 package com.mycompany.a4;
 
+import java.util.ArrayList;
 import java.util.Random;
 import java.util.Set;
 
 import com.codename1.charts.util.ColorUtil;
 import com.codename1.ui.geom.Point;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Observable;
-
 
 /**
  * GameWorld holds the collection of GameObjects currently in play and other various
@@ -17,10 +14,14 @@ import java.util.Observable;
  * 
  * @author Eric Brown
  */
-public class GameWorld extends Observable {
+public class GameWorld {
 	private static final int INITIAL_LIVES = 3;
 	private static final int SPEED_INCREMENT = 10;
 	private static final int TOTAL_BASE_COUNT = 9;
+	private static final int PARALLEL_MOVE_THRESHOLD = 1024;  // Fewer movables than this are moved serially, splitting costs more than it saves.
+	private static final int MOVE_CHUNK_SIZE = 256;
+	private static final int PARALLEL_NARROW_PHASE_THRESHOLD = 512;  // Fewer candidate pairs than this are tested serially.
+	private static final int NARROW_PHASE_CHUNK_SIZE = 128;
 
 	private int width;
 	private int height;
@@ -30,17 +31,68 @@ public class GameWorld extends Observable {
 	
 	private boolean soundEnabled = false;
 	private boolean movingObject = false;
+	private boolean gameOver = false;
+	private IGameOverListener gameOverListener;
+	
+	private ArrayList<IGameWorldListener> listeners = new ArrayList<IGameWorldListener>();
+	private final Object changeLock = new Object();  // Guards pendingChanges, the UI thread never waits for a tick.
+	private int pendingChanges = 0;  // IGameWorldListener fields changed since the last dispatch.
+	private int shownEnergy = -1;  // Player values as of the last tick, to tell whether they changed.
+	private int shownDamage = -1;
+	private int shownBase = -1;
 	
 	private GameObjectCollection objectCollection = new GameObjectCollection();
+	private ShockWaveSystem shockWaves = new ShockWaveSystem();
 	private PlayerRobot player;
-	private static Random generator = new Random(System.currentTimeMillis());
+	private Random generator;
+	
+	private PairSet contacts = new PairSet();  // Pairs of object ids that were colliding last tick.
+	private PairSet currentContacts = new PairSet();
+	private CollisionMode collisionMode;
+	private IBroadPhase broadPhase;
+	private int indexedModificationCount = -1;  // Collection modification count the broad phase last saw.
+	private CollisionPairBuffer candidatePairs = new CollisionPairBuffer();
+	private CollisionPairBuffer[] workerCollisions = {new CollisionPairBuffer()};  // Colliding pairs found by each worker.
+	private CollisionPairBuffer collisions = new CollisionPairBuffer();
+	
+	private WorkerPool workerPool;  // Null to run every phase serially.
+	private MoveTask moveTask = new MoveTask();
+	private NarrowPhaseTask narrowPhaseTask = new NarrowPhaseTask();
+	
+	private IAudioSink audio = new SilentAudioSink();  // Robots of this world play their sounds through it.
+	
+	public enum CollisionMode {
+		BRUTE_FORCE,  // Tests every pair of objects, kept for comparison.
+		SPATIAL_HASH,  // Suits sparse worlds and objects of similar size.
+		SWEEP_AND_PRUNE  // Suits dense worlds where objects move a little each tick.
+	}
 	
-	private HashMap<GameObject, HashSet<GameObject>> collisionHistory = new HashMap<GameObject, HashSet<GameObject>>();
+	/**
+	 * Constructor for GameWorld using the spatial hash collision mode.
+	 */
+	public GameWorld() {
+		this(CollisionMode.SPATIAL_HASH);
+	}
+	
+	/**
+	 * Constructor for GameWorld.
+	 * 
+	 * @param mode				how candidate collision pairs are found each tick
+	 */
+	public GameWorld(CollisionMode mode) {
+		this(mode, System.currentTimeMillis());
+	}
 	
-	private static Sound crashSound = null;
-	private static Sound chargeSound = null;
-	private static Sound explosionSound = null;
-	private static BGSound backgroundSound = null;
+	/**
+	 * Constructor for GameWorld. Worlds created with the same seed and ticked the same way play out the same.
+	 * 
+	 * @param mode				how candidate collision pairs are found each tick
+	 * @param seed				seed for every random choice the world makes
+	 */
+	public GameWorld(CollisionMode mode, long seed) {
+		this.generator = new Random(seed);
+		this.setCollisionMode(mode);
+	}
 	
 	/**
 	 * Setter for width.
@@ -74,22 +126,25 @@ public class GameWorld extends Observable {
 		float playerRobotX = getBaseLocationX(1);
 		float deltaX = 200;
 		float deltaY = 200;
-		PlayerRobot.setInitialLocation(playerRobotX, playerRobotY);
-		this.player = PlayerRobot.resetInstance();
+		this.player = new PlayerRobot(playerRobotX, playerRobotY);
+		this.player.setWorld(this);
 		this.objectCollection.add(player);
 		
 		// Create a robot that races the player.
 		NonPlayerRobot robot = new NonPlayerRobot(robotColor, playerRobotX + deltaX, playerRobotY + deltaY, 0, null);;
+		robot.setWorld(this);
 		robot.setStrategy(new RaceStrategy(robot, this));
 		this.objectCollection.add(robot);
 		
 		// Create a robot that attacks the player.
 		robot = new NonPlayerRobot(robotColor, playerRobotX + deltaX, playerRobotY - deltaY, 0, null);
-		robot.setStrategy(new AttackStrategy(robot));
+		robot.setWorld(this);
+		robot.setStrategy(new AttackStrategy(robot, this));
 		this.objectCollection.add(robot);
 		
 		// Create a third robot as per specifications.
 		robot = new NonPlayerRobot(robotColor, playerRobotX - deltaX, playerRobotY + deltaY, 0, null);
+		robot.setWorld(this);
 		robot.setStrategy(new RaceStrategy(robot, this));
 		this.objectCollection.add(robot);
 		
@@ -98,12 +153,11 @@ public class GameWorld extends Observable {
 		this.objectCollection.add(new EnergyStation(randomInt(50, 120), randomInt(0, width), randomInt(0, height)));
 		
 		// Add a two drones.
-		this.objectCollection.add(new Drone(randomInt(50, 120), ColorUtil.GRAY, randomInt(0, width), randomInt(0, height), randomInt(30, 60), randomInt(0, 360), width, height));
-		this.objectCollection.add(new Drone(randomInt(50, 120), ColorUtil.GRAY, randomInt(0, width), randomInt(0, height), randomInt(30, 60), randomInt(0, 360), width, height));
+		this.objectCollection.add(new Drone(randomInt(50, 120), ColorUtil.GRAY, randomInt(0, width), randomInt(0, height), randomInt(30, 60), randomInt(0, 360), width, height, generator.nextLong()));
+		this.objectCollection.add(new Drone(randomInt(50, 120), ColorUtil.GRAY, randomInt(0, width), randomInt(0, height), randomInt(30, 60), randomInt(0, 360), width, height, generator.nextLong()));
 		
 		// Initialize the text displayed by the GUI.
-		this.setChanged();
-		this.notifyObservers();
+		this.markChanged(IGameWorldListener.ALL);
 	}
 	
 	/**
@@ -112,7 +166,7 @@ public class GameWorld extends Observable {
 	 * @param end						ending value of integer range (exclusive)
 	 * @return							random integer between [start, end)
 	 */
-	public static int randomInt(int start, int end) {
+	public int randomInt(int start, int end) {
 		return generator.nextInt(end - start) + start;
 	}
 	
@@ -120,151 +174,292 @@ public class GameWorld extends Observable {
 	/**
 	 * Increments the internal game state by a single time unit.
 	 */
-	public void tick(long milliseconds) {
+	public synchronized void tick(long milliseconds) {
+		if (this.gameOver) {
+			return;
+		}
+		
+		int previousClock = this.clock;
 		this.millisecondClock += milliseconds;
 		this.clock += this.millisecondClock / 1000;
 		this.millisecondClock %= 1000;
 		
-		IIterator outer = this.objectCollection.getIterator();
+		if (this.clock != previousClock) {
+			this.markChanged(IGameWorldListener.CLOCK);
+		}
 		
-		// Move all the objects first.
-		while (outer.hasNext()) {
-			GameObject object = outer.getNext();
-			
-			if (object instanceof Movable) {
-				((Movable) object).move(milliseconds);
-				
-				// Check to see if the player won.
-				if (object instanceof PlayerRobot) {
-					if (((PlayerRobot) object).getLastBaseReached() == TOTAL_BASE_COUNT) {
-						System.out.println("Game over, you win! Total time: " + this.clock);
-						System.exit(0);
-					}
-				}
-				
-				// Check to see if an NPR won the game.
-				if (object instanceof NonPlayerRobot) {
-					if (((NonPlayerRobot) object).getLastBaseReached() == TOTAL_BASE_COUNT) {
-						System.out.println("Game over, a non-player robot wins!");
-						System.exit(0);
-					}
-				}
-			}
+		// Remember where everything started, both for interpolated drawing and because objects that look at
+		// other objects while moving (e.g. AttackStrategy) read where they were at the start of the tick.
+		GameObjectList movables = this.objectCollection.getMovables();
+		for (int i = 0; i < movables.size(); i++) {
+			((Movable) movables.get(i)).savePreviousLocation();
 		}
 		
+		// Move all the objects, in parallel when there are enough of them.
+		moveTask.milliseconds = milliseconds;
+		if (workerPool != null && movables.size() >= PARALLEL_MOVE_THRESHOLD) {
+			workerPool.invoke(moveTask, movables.size(), MOVE_CHUNK_SIZE);
+		}
+		else {
+			moveTask.run(0, movables.size(), 0);
+		}
+		this.shockWaves.update(milliseconds);
 		
-		// Process the collisions.
-		outer = this.objectCollection.getIterator();
-		while (outer.hasNext()) {
-			GameObject first = outer.getNext();
-			
-			if (!collisionHistory.containsKey(first)) {
-				collisionHistory.put(first, new HashSet<GameObject>());
-			}
-			
-			IIterator inner = this.objectCollection.getIterator();
-			HashSet<GameObject> objects = collisionHistory.get(first);
-			
-			while (inner.hasNext()) {
-				GameObject second = inner.getNext();
-				
-				if (first == second) {
-					continue;
-				}
-				else if (first.collidesWith(second)) {
-					if (!objects.contains(second)) {  // Collision hasn't been encountered before.
-						first.handleCollision(second);
-						objects.add(second);
-						
-						// Handle shockwaves.
-						if ((first instanceof Robot || first instanceof Drone) && (second instanceof Robot || second instanceof Drone)) {
-							if (collisionHistory.get(second) != null && collisionHistory.get(second).contains(first)) {  // Already spawned a shockwave for this collision.
-								continue;
-							}
-							this.objectCollection.add(new ShockWave(first.getLocationX(), first.getLocationY()));
-						}
-					}
-				}
-				else {  // Objects are not collided or passed over each other, reset their history.
-					objects.remove(second);
-				}
+		// Check to see if the player won.
+		if (player.getLastBaseReached() == TOTAL_BASE_COUNT) {
+			this.endGame(true, "Game over, you win! Total time: " + this.clock);
+			return;
+		}
+		
+		// Check to see if an NPR won the game.
+		GameObjectList robots = this.objectCollection.getNonPlayerRobots();
+		for (int i = 0; i < robots.size(); i++) {
+			if (((NonPlayerRobot) robots.get(i)).getLastBaseReached() == TOTAL_BASE_COUNT) {
+				this.endGame(false, "Game over, a non-player robot wins!");
+				return;
 			}
 		}
 		
-		// Add new energy stations if needed and remove shockwaves if they are expired.
+		
+		// Process the collisions.
+		this.processCollisions();
+		
+		// Add new energy stations if needed.
 		int chargedEnergyStations = 0;
-		IIterator i = this.objectCollection.getIterator();
+		GameObjectList stations = this.objectCollection.getEnergyStations();
 		
-		while (i.hasNext()) {
-			GameObject obj = i.getNext();
-			if (obj instanceof EnergyStation) {
-				if (((EnergyStation) obj).hasEnergy()) {
-					chargedEnergyStations++;
-				}
-			}
-			else if (obj instanceof ShockWave) {
-				ShockWave wave = (ShockWave) obj;
-				if (wave.isExpired()) {
-					this.objectCollection.remove(wave);
-				}
+		for (int i = 0; i < stations.size(); i++) {
+			if (((EnergyStation) stations.get(i)).hasEnergy()) {
+				chargedEnergyStations++;
 			}
 		}
 		
 		for (int j = chargedEnergyStations; j < 2; j++) {
-			this.objectCollection.add(new EnergyStation(randomInt(50, 120), randomInt(0, width), randomInt(0, height)));
+			this.objectCollection.queueAdd(new EnergyStation(randomInt(50, 120), randomInt(0, width), randomInt(0, height)));
 		}
 		
+		// Objects spawned or despawned during the tick only enter or leave play here, all at once.
+		this.objectCollection.applyQueuedChanges();
+		
 		// Check to see the player lost.
-		if (PlayerRobot.getInstance().isDead()) {
+		if (this.player.isDead()) {
 			System.out.println("Robot is unable to move, starting next life...\n");
 			playExplosionSound(); 
 			this.startNextLife();
 		}
 		
-		this.setChanged();
-		this.notifyObservers();
+		this.markPlayerChanges();
+	}
+	
+	/**
+	 * Marks the player values shown by the HUD that changed during the tick, and the objects, which
+	 * move every tick.
+	 */
+	private void markPlayerChanges() {
+		int changes = IGameWorldListener.OBJECTS;
+		int energy = (int) this.player.getEnergyLevel();
+		int damage = this.player.getDamageLevel();
+		int base = this.player.getLastBaseReached();
+		
+		if (energy != this.shownEnergy) {
+			changes |= IGameWorldListener.ENERGY;
+			this.shownEnergy = energy;
+		}
+		if (damage != this.shownDamage) {
+			changes |= IGameWorldListener.DAMAGE;
+			this.shownDamage = damage;
+		}
+		if (base != this.shownBase) {
+			changes |= IGameWorldListener.BASE;
+			this.shownBase = base;
+		}
+		this.markChanged(changes);
+	}
+	
+	/**
+	 * Records that parts of the world changed. Listeners hear about it on the next dispatchChanges.
+	 * 
+	 * @param changes				mask of IGameWorldListener fields that changed
+	 */
+	public void markChanged(int changes) {
+		synchronized (changeLock) {
+			this.pendingChanges |= changes;
+		}
+	}
+	
+	/**
+	 * Tells every listener what changed since the last dispatch, if anything did. Called once per frame
+	 * on the UI thread, so however many ticks or commands ran in between, listeners are called once.
+	 * 
+	 * @return						mask of the fields that were dispatched
+	 */
+	public int dispatchChanges() {
+		int changes;
+		
+		synchronized (changeLock) {
+			changes = this.pendingChanges;
+			this.pendingChanges = 0;
+		}
+		
+		if (changes != 0) {
+			for (int i = 0; i < listeners.size(); i++) {
+				listeners.get(i).worldChanged(this, changes);
+			}
+		}
+		return changes;
+	}
+	
+	/**
+	 * Adds a listener that is told about changes to the world.
+	 * 
+	 * @param listener				the listener to add
+	 */
+	public void addListener(IGameWorldListener listener) {
+		this.listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener.
+	 * 
+	 * @param listener				the listener to remove
+	 */
+	public void removeListener(IGameWorldListener listener) {
+		this.listeners.remove(listener);
 	}
 	
 	
 	
+	/**
+	 * Finds the pairs of objects that collided this tick and handles the ones that just started colliding.
+	 * A collision is only handled once until the objects separate again. Only the pairs colliding this
+	 * tick are remembered, so the tables never hold more than the current number of contacts.
+	 * 
+	 * The candidate pairs are tested in parallel when there are enough of them. Collisions are always
+	 * handled on this thread, in order of object ids, so the outcome doesn't depend on how the tests were split.
+	 */
+	private void processCollisions() {
+		currentContacts.clear();
+		candidatePairs.clear();
+		broadPhase.findCandidatePairs(this.objectCollection, candidatePairs);
+		indexedModificationCount = this.objectCollection.getModificationCount();
+		
+		if (workerPool != null && candidatePairs.size() >= PARALLEL_NARROW_PHASE_THRESHOLD) {
+			workerPool.invoke(narrowPhaseTask, candidatePairs.size(), NARROW_PHASE_CHUNK_SIZE);
+		}
+		else {
+			narrowPhaseTask.run(0, candidatePairs.size(), 0);
+		}
+		
+		collisions.clear();
+		for (int i = 0; i < workerCollisions.length; i++) {
+			collisions.addAll(workerCollisions[i]);
+			workerCollisions[i].clear();
+		}
+		collisions.sortByIds();
+		
+		for (int i = 0; i < collisions.size(); i++) {
+			GameObject first = collisions.getFirst(i);
+			GameObject second = collisions.getSecond(i);
+			long pair = PairSet.key(first.getId(), second.getId());
+			currentContacts.add(pair);
+			
+			if (contacts.contains(pair)) {  // Collision has been encountered before.
+				continue;
+			}
+			
+			first.handleCollision(second);
+			second.handleCollision(first);
+			
+			// Handle shockwaves, only one is spawned for each collision.
+			if ((first instanceof Robot || first instanceof Drone) && (second instanceof Robot || second instanceof Drone)) {
+				this.shockWaves.spawn(first.getLocationX(), first.getLocationY(), generator);
+			}
+		}
+		candidatePairs.clear();
+		collisions.clear();
+		
+		// Pairs that stopped colliding or whose objects left the game are dropped by swapping the tables.
+		PairSet previous = contacts;
+		contacts = currentContacts;
+		currentContacts = previous;
+	}
+	
+	/**
+	 * Selects how candidate collision pairs are found each tick.
+	 * 
+	 * @param mode					the collision mode to use
+	 */
+	public void setCollisionMode(CollisionMode mode) {
+		this.collisionMode = mode;
+		this.indexedModificationCount = -1;
+		
+		switch (mode) {
+		case BRUTE_FORCE:
+			this.broadPhase = new BruteForceBroadPhase();
+			break;
+		case SWEEP_AND_PRUNE:
+			this.broadPhase = new SweepAndPruneBroadPhase();
+			break;
+		default:
+			this.broadPhase = new SpatialHashBroadPhase();
+			break;
+		}
+	}
+	
+	/**
+	 * Setter for workerPool. Large worlds spread their per-object work over the pool's threads.
+	 * 
+	 * @param pool					the pool to use, null to run every phase serially
+	 */
+	public void setWorkerPool(WorkerPool pool) {
+		this.workerPool = pool;
+		
+		int workers = (pool == null) ? 1 : pool.getWorkerCount();
+		this.workerCollisions = new CollisionPairBuffer[workers];
+		for (int i = 0; i < workers; i++) {
+			this.workerCollisions[i] = new CollisionPairBuffer();
+		}
+	}
+	
+	/**
+	 * Getter for collisionMode.
+	 * 
+	 * @return						the collision mode in use
+	 */
+	public CollisionMode getCollisionMode() {
+		return this.collisionMode;
+	}
+	
 	/**
 	 * Increases the player robot's speed by a small amount.
 	 */
-	public void acceleratePlayerRobot() {
+	public synchronized void acceleratePlayerRobot() {
 		player.setSpeed(player.getSpeed() + SPEED_INCREMENT);
 		System.out.println("Player speed is now " + player.getSpeed() + ".\n");
-		this.setChanged();
-		this.notifyObservers();
 	}
 	
 	/**
 	 * Decreases the player robot's speed by a small amount.
 	 */
-	public void deceleratePlayerRobot() {
+	public synchronized void deceleratePlayerRobot() {
 		player.setSpeed(player.getSpeed() - SPEED_INCREMENT);
 		System.out.println("Player speed is now " + player.getSpeed() + ".\n");
-		this.setChanged();
-		this.notifyObservers();
 	}
 	
 	/**
 	 * Turns the robot player left (counter-clockwise) by a small amount.
 	 */
-	public void turnPlayerRobotLeft() {
+	public synchronized void turnPlayerRobotLeft() {
 		player.steerLeft();
 		System.out.println("New steering direction is " + player.getSteeringDirection() + ".\n");
-		this.setChanged();
-		this.notifyObservers();
 	}
 	
 	/**
 	 * Turns the robot player right (clockwise) by a small amount.
 	 */
-	public void turnPlayerRobotRight() {
+	public synchronized void turnPlayerRobotRight() {
 		player.steerRight();
 		System.out.println("New steering direction is " + player.getSteeringDirection() + ".\n");
-		this.setChanged();
-		this.notifyObservers();
 	}
 	
 	
@@ -274,17 +469,69 @@ public class GameWorld extends Observable {
 	 */
 	public void startNextLife() {
 		this.objectCollection.clear();
+		this.shockWaves.clear();
+		this.broadPhase.clear();
+		this.contacts.clear();
 		this.init();
 		this.lives--;
+		this.markChanged(IGameWorldListener.LIVES);
 		
 		System.out.println("You have " + this.lives + " lives remaining...\n");
 		
 		if (this.lives == 0) {
-			System.out.println("Game over, you failed!");
-			System.exit(0);
+			this.endGame(false, "Game over, you failed!");
+			return;
+		}
+	}
+	
+	/**
+	 * Ends the game. The world stops ticking and the game over listener decides what happens next.
+	 * 
+	 * @param playerWon				true if the player won the game
+	 * @param message				description of how the game ended
+	 */
+	private void endGame(boolean playerWon, String message) {
+		System.out.println(message);
+		this.gameOver = true;
+		this.markChanged(IGameWorldListener.ALL);
+		
+		if (this.gameOverListener != null) {
+			this.gameOverListener.gameOver(this, playerWon, message);
 		}
-		this.setChanged();
-		this.notifyObservers();
+	}
+	
+	/**
+	 * @return						true once the game has been won or lost
+	 */
+	public boolean isGameOver() {
+		return this.gameOver;
+	}
+	
+	/**
+	 * Setter for gameOverListener.
+	 * 
+	 * @param listener				object told when the game ends, null for none
+	 */
+	public void setGameOverListener(IGameOverListener listener) {
+		this.gameOverListener = listener;
+	}
+	
+	/**
+	 * Releases everything the world holds so it can be thrown away: its objects, collision state and
+	 * listeners. The world can't be ticked again afterwards. A worker pool set on the world is not shut
+	 * down, as it may be shared.
+	 */
+	public synchronized void dispose() {
+		this.gameOver = true;
+		this.objectCollection.clear();
+		this.shockWaves.clear();
+		this.broadPhase.clear();
+		this.contacts.clear();
+		this.currentContacts.clear();
+		this.player = null;
+		this.workerPool = null;
+		this.gameOverListener = null;
+		this.listeners.clear();
 	}
 	
 	/**
@@ -292,10 +539,9 @@ public class GameWorld extends Observable {
 	 */
 	public String toString() {
 		String state = "[MAP] Listing the GameObjects in play...";
-		IIterator iterator = this.objectCollection.getIterator();
 		
-		while (iterator.hasNext()) {
-			GameObject object = iterator.getNext();
+		for (int i = 0; i < this.objectCollection.size(); i++) {
+			GameObject object = this.objectCollection.get(i);
 			state += "\n\t" + object.toString();
 		}
 		return state;
@@ -327,14 +573,13 @@ public class GameWorld extends Observable {
 	 */
 	public void setSoundEnabled(boolean enabled) {
 		this.soundEnabled = enabled;
-		this.setChanged();
-		this.notifyObservers();
+		this.markChanged(IGameWorldListener.SOUND);
 		
 		if (enabled) {
-			GameWorld.unmuteAllSounds();
+			this.unmuteAllSounds();
 		}
 		else {
-			GameWorld.muteAllSounds();
+			this.muteAllSounds();
 		}
 	}
 	
@@ -347,6 +592,15 @@ public class GameWorld extends Observable {
 		return this.soundEnabled;
 	}
 	
+	/**
+	 * Getter for player.
+	 * 
+	 * @return				the player robot of the current life
+	 */
+	public PlayerRobot getPlayer() {
+		return this.player;
+	}
+	
 	/**
 	 * Getter for last base reached by the player.
 	 * 
@@ -381,16 +635,10 @@ public class GameWorld extends Observable {
 	 * @return					x coordinate of the specified base, -1 if base number is invalid
 	 */
 	public float getBaseLocationX(int base) {
-		IIterator iterator = this.objectCollection.getIterator();
+		Base b = this.objectCollection.getBase(base);
 		
-		while (iterator.hasNext()) {
-			GameObject object = iterator.getNext();
-			
-			if (object instanceof Base) {
-				Base b = (Base) object;
-				if (b.getSequenceNumber() == base)
-					return b.getLocationX();
-			}
+		if (b != null) {
+			return b.getLocationX();
 		}
 		
 		System.out.println("Couldn't find x location for base #" + base);
@@ -404,16 +652,10 @@ public class GameWorld extends Observable {
 	 * @return					y coordinate of the specified base, -1 if base number is invalid
 	 */
 	public float getBaseLocationY(int base) {
-		IIterator iterator = this.objectCollection.getIterator();
+		Base b = this.objectCollection.getBase(base);
 		
-		while (iterator.hasNext()) {
-			GameObject object = iterator.getNext();
-			
-			if (object instanceof Base) {
-				Base b = (Base) object;
-				if (b.getSequenceNumber() == base)
-					return b.getLocationY();
-			}
+		if (b != null) {
+			return b.getLocationY();
 		}
 		
 		System.out.println("Couldn't find y location for base #" + base + "\n");
@@ -423,28 +665,21 @@ public class GameWorld extends Observable {
 	/**
 	 * Changes the strategies of all the NPRs that are currently in play and also increments the last base reached values.
 	 */
-	public void changeNPRStrategies() {
-		IIterator iterator = this.objectCollection.getIterator();
+	public synchronized void changeNPRStrategies() {
+		GameObjectList robots = this.objectCollection.getNonPlayerRobots();
 		
-		while (iterator.hasNext()) {
-			GameObject object = iterator.getNext();
+		for (int i = 0; i < robots.size(); i++) {
+			NonPlayerRobot robot = (NonPlayerRobot) robots.get(i);
 			
-			if (object instanceof NonPlayerRobot) {
-				NonPlayerRobot robot = (NonPlayerRobot) object;
-				
-				// The NPRs switch to race if they were attacking before and vice versa.
-				if (robot.getStrategy() instanceof RaceStrategy) {
-					robot.setStrategy(new AttackStrategy(robot));
-				}
-				else {
-					robot.setStrategy(new RaceStrategy(robot, this));
-				}
+			// The NPRs switch to race if they were attacking before and vice versa.
+			if (robot.getStrategy() instanceof RaceStrategy) {
+				robot.setStrategy(new AttackStrategy(robot, this));
+			}
+			else {
+				robot.setStrategy(new RaceStrategy(robot, this));
 			}
 		}
 		System.out.println("Strategies for each robot have been flipped.\n");
-		
-		this.setChanged();
-		this.notifyObservers();
 	}
 	
 	/**
@@ -455,97 +690,112 @@ public class GameWorld extends Observable {
 	}
 	
 	/**
-	 * Plays "crash.wav".
+	 * @return			the collection of objects in play, for walking it by index without allocating an iterator
 	 */
-	public static void playCrashSound() {
-		if (crashSound == null) {
-			crashSound = new Sound("crash.wav", "wav");
+	public GameObjectCollection getObjectCollection() {
+		return this.objectCollection;
+	}
+	
+	/**
+	 * Finds the objects whose bounding boxes overlap a region using the broad phase, without looking at
+	 * every object. This only works if the broad phase supports region queries and no object was added
+	 * or removed since it last ran. Objects are found where they were at the end of the last collision
+	 * check, so callers should pad the region by how far objects may have moved since.
+	 * 
+	 * @param left					smallest x of the region
+	 * @param bottom				smallest y of the region
+	 * @param right					largest x of the region
+	 * @param top					largest y of the region
+	 * @param result				buffer that receives the objects
+	 * @return						true if the query was answered, false if the caller must look at every object
+	 */
+	public boolean queryRegion(float left, float bottom, float right, float top, GameObjectBuffer result) {
+		if (!(broadPhase instanceof ISpatialQuery) || indexedModificationCount != this.objectCollection.getModificationCount()) {
+			return false;
 		}
-		crashSound.play();
+		((ISpatialQuery) broadPhase).queryRegion(left, bottom, right, top, result);
+		return true;
 	}
 	
 	/**
-	 * Plays "charge.wav".
+	 * Getter for shockWaves.
+	 * 
+	 * @return						the shockwaves in play, which are not part of the object collection
 	 */
-	public static void playChargeSound() {
-		if (chargeSound == null) {
-			
-		}
-		chargeSound.play();
+	public ShockWaveSystem getShockWaves() {
+		return this.shockWaves;
 	}
 	
 	/**
-	 * Plays "explosion.wav".
+	 * Sets where the world sends its sounds. Worlds start out silent.
+	 * 
+	 * @param sink				the audio sink to use
 	 */
-	public static void playExplosionSound() {
-		if (explosionSound == null) {
-			explosionSound = new Sound("explosion.wav", "wav");
-		}
-		explosionSound.play();
+	public void setAudioSink(IAudioSink sink) {
+		this.audio = sink;
 	}
 	
 	/**
-	 * Plays "background.mp3".
+	 * @return					the audio sink sounds are sent to
 	 */
-	public static void playBackgroundSound() {
-		if (backgroundSound == null) {
-			backgroundSound = new BGSound("background.mp3", "mp3");
-		}
-		backgroundSound.run();
+	public IAudioSink getAudioSink() {
+		return audio;
 	}
 	
 	/**
 	 * Plays "crash.wav".
 	 */
-	public static Sound[] getAllSounds() {
-		return new Sound[] {crashSound, chargeSound, explosionSound, backgroundSound};
+	public void playCrashSound() {
+		audio.playCrash();
+	}
+	
+	/**
+	 * Plays "charge.wav".
+	 */
+	public void playChargeSound() {
+		audio.playCharge();
+	}
+	
+	/**
+	 * Plays "explosion.wav".
+	 */
+	public void playExplosionSound() {
+		audio.playExplosion();
 	}
 	
 	/**
-	 * Creates the sound objects that the game uses.
+	 * Plays "background.mp3".
 	 */
-	public static void createSounds() {
-		crashSound = new Sound("crash.wav", "wav");
-		backgroundSound = new BGSound("background.mp3", "mp3");
-		chargeSound = new Sound("charge.wav", "wav");
-		explosionSound = new Sound("explosion.wav", "wav");
+	public void playBackgroundSound() {
+		audio.playBackground();
 	}
 	
 	/**
 	 * Stops all sounds.
 	 */
-	public static void stopAllSounds() {
-		for (Sound s : getAllSounds()) {
-			if (s == null) continue;
-			s.stop();
-		}
+	public void stopAllSounds() {
+		audio.stopAll();
 	}
 	
 	/**
 	 * Mutes all sounds.
 	 */
-	public static void muteAllSounds() {
-		for (Sound s : getAllSounds()) {
-			if (s == null) continue;
-			s.mute();
-		}
+	public void muteAllSounds() {
+		audio.setMuted(true);
 	}
 	
 	/**
 	 * Unmutes all sounds.
 	 */
-	public static void unmuteAllSounds() {
-		for (Sound s : getAllSounds()) {
-			if (s == null) continue;
-			s.unmute();
-		}
+	public void unmuteAllSounds() {
+		audio.setMuted(false);
 	}
 	
 	/**
 	 * Setter for movingObject.
 	 * @param b
 	 */
-	public void setMovingObject(boolean b) {
+	public synchronized void setMovingObject(boolean b) {
 		this.movingObject = b;
 	}
 	
@@ -560,15 +810,54 @@ public class GameWorld extends Observable {
 	/**
 	 * Deselects any currently selected object.
 	 */
-	public void deselectAllObjects() {
+	public synchronized void deselectAllObjects() {
 		this.setMovingObject(false);
-		IIterator iterator = this.getObjectCollectionIterator();
+		GameObjectList selectables = this.objectCollection.getSelectables();
 		
-		while (iterator.hasNext()) {
-			GameObject obj = iterator.getNext();
-			if (obj instanceof ISelectable) {
-				((ISelectable) obj).setSelected(false);
+		for (int i = 0; i < selectables.size(); i++) {
+			((ISelectable) selectables.get(i)).setSelected(false);
+		}
+		this.markChanged(IGameWorldListener.OBJECTS);
+	}
+	
+	/**
+	 * Moves a range of the movables. Each object only changes its own state while moving, so ranges can
+	 * run on different threads and give the same result as moving them one after another.
+	 * 
+	 * @author Eric Brown
+	 */
+	private class MoveTask implements IRangeTask {
+		private long milliseconds;
+		
+		@Override
+		public void run(int start, int end, int worker) {
+			GameObjectList movables = objectCollection.getMovables();
+			
+			for (int i = start; i < end; i++) {
+				((Movable) movables.get(i)).move(milliseconds);
+			}
+		}
+	}
+	
+	/**
+	 * Tests a range of the candidate pairs and records the colliding ones in the running worker's own buffer.
+	 * Testing only reads the objects, so ranges can run on different threads.
+	 * 
+	 * @author Eric Brown
+	 */
+	private class NarrowPhaseTask implements IRangeTask {
+		@Override
+		public void run(int start, int end, int worker) {
+			CollisionPairBuffer found = workerCollisions[worker];
+			
+			for (int i = start; i < end; i++) {
+				GameObject first = candidatePairs.getFirst(i);
+				GameObject second = candidatePairs.getSecond(i);
+				
+				if (first.collidesWith(second)) {
+					found.add(first, second);
+				}
 			}
 		}
 	}
-}
+}
\ No newline at end of file
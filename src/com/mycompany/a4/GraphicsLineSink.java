@@ -0,0 +1,27 @@
+package com.mycompany.a4;
+
+import com.codename1.ui.Graphics;
+
+
+/**
+ * GraphicsLineSink draws the line segments it receives with a graphics object.
+ * 
+ * @author Eric Brown
+ */
+public class GraphicsLineSink implements ILineSink {
+	private Graphics g;
+	
+	/**
+	 * Setter for the graphics object lines are drawn with.
+	 * 
+	 * @param g					graphics object to draw with
+	 */
+	public void setGraphics(Graphics g) {
+		this.g = g;
+	}
+	
+	@Override
+	public void addLine(double x1, double y1, double x2, double y2) {
+		g.drawLine((int) x1, (int) y1, (int) x2, (int) y2);
+	}
+}
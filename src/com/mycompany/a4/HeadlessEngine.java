@@ -0,0 +1,116 @@
+package com.mycompany.a4;
+
+
+/**
+ * HeadlessEngine runs a GameWorld without a Codename One display, media or UI thread, e.g. for
+ * server side simulation or benchmarks. Sounds go nowhere, the end of the game is recorded instead of
+ * quitting the process, and every random choice comes from the given seed.
+ * 
+ * @author Eric Brown
+ */
+public class HeadlessEngine implements IGameOverListener {
+	private GameWorld gw;
+	private WorkerPool workerPool;  // Owned by the engine, null when running serially.
+	private boolean playerWon = false;
+	private String gameOverMessage;
+	
+	/**
+	 * Constructor for HeadlessEngine. Creates and initializes a world that runs on the calling thread.
+	 * 
+	 * @param width					width of the world
+	 * @param height				height of the world
+	 * @param mode					how candidate collision pairs are found each tick
+	 * @param seed					seed for every random choice the world makes
+	 */
+	public HeadlessEngine(int width, int height, GameWorld.CollisionMode mode, long seed) {
+		this(width, height, mode, seed, 0);
+	}
+	
+	/**
+	 * Constructor for HeadlessEngine. Creates and initializes a world.
+	 * 
+	 * @param width					width of the world
+	 * @param height				height of the world
+	 * @param mode					how candidate collision pairs are found each tick
+	 * @param seed					seed for every random choice the world makes
+	 * @param workerThreads			extra threads to spread large ticks over, 0 to tick serially
+	 */
+	public HeadlessEngine(int width, int height, GameWorld.CollisionMode mode, long seed, int workerThreads) {
+		gw = new GameWorld(mode, seed);  // Worlds start out silent.
+		gw.setWidth(width);
+		gw.setHeight(height);
+		gw.setGameOverListener(this);
+		
+		if (workerThreads > 0) {
+			workerPool = new WorkerPool(workerThreads);
+			gw.setWorkerPool(workerPool);
+		}
+		gw.init();
+	}
+	
+	/**
+	 * Advances the world by a number of fixed size steps, stopping early if the game ends.
+	 * 
+	 * @param steps					number of steps to run
+	 * @param stepMillis			length of each step in milliseconds
+	 * @return						number of steps actually run
+	 */
+	public int run(int steps, int stepMillis) {
+		for (int i = 0; i < steps; i++) {
+			if (gw.isGameOver()) {
+				return i;
+			}
+			gw.tick(stepMillis);
+		}
+		return steps;
+	}
+	
+	/**
+	 * Records how the game ended.
+	 */
+	@Override
+	public void gameOver(GameWorld world, boolean playerWon, String message) {
+		this.playerWon = playerWon;
+		this.gameOverMessage = message;
+	}
+	
+	/**
+	 * @return						the world being simulated
+	 */
+	public GameWorld getWorld() {
+		return this.gw;
+	}
+	
+	/**
+	 * @return						true once the game has been won or lost
+	 */
+	public boolean isGameOver() {
+		return gw.isGameOver();
+	}
+	
+	/**
+	 * @return						true if the game ended with the player winning
+	 */
+	public boolean didPlayerWin() {
+		return this.playerWon;
+	}
+	
+	/**
+	 * @return						description of how the game ended, null while it is still going
+	 */
+	public String getGameOverMessage() {
+		return this.gameOverMessage;
+	}
+	
+	/**
+	 * Stops the engine's worker threads and releases the world.
+	 */
+	public void dispose() {
+		gw.dispose();
+		
+		if (workerPool != null) {
+			workerPool.shutdown();
+			workerPool = null;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.mycompany.a4;
+
+
+/**
+ * Interface for whatever plays the game's sounds. The app plays real sounds through SoundAudioSink,
+ * while headless worlds use SilentAudioSink so they never touch Codename One media.
+ * 
+ * @author Eric Brown
+ */
+public interface IAudioSink {
+	/**
+	 * Plays the sound of a robot crashing into something.
+	 */
+	public void playCrash();
+	
+	/**
+	 * Plays the sound of a robot charging at an energy station.
+	 */
+	public void playCharge();
+	
+	/**
+	 * Plays the sound of the player robot exploding.
+	 */
+	public void playExplosion();
+	
+	/**
+	 * Starts the looping background music.
+	 */
+	public void playBackground();
+	
+	/**
+	 * Stops every sound that is playing.
+	 */
+	public void stopAll();
+	
+	/**
+	 * Mutes or unmutes every sound.
+	 * 
+	 * @param muted				true to mute, false to unmute
+	 */
+	public void setMuted(boolean muted);
+}
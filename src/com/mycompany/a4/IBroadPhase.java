@@ -0,0 +1,25 @@
+package com.mycompany.a4;
+
+
+/**
+ * Interface for the broad phase of collision detection. Implementations cheaply narrow down the pairs
+ * of game objects that could be colliding so that GameObject.collidesWith only has to be called on those.
+ *
+ * @author Eric Brown
+ */
+public interface IBroadPhase {
+	
+	/**
+	 * Brings the broad phase up to date with the objects currently in play and writes every pair
+	 * that might be colliding into the buffer. Each unordered pair is written at most once.
+	 *
+	 * @param objects			the objects currently in play
+	 * @param pairs				buffer that receives the candidate pairs
+	 */
+	public void findCandidatePairs(GameObjectCollection objects, CollisionPairBuffer pairs);
+	
+	/**
+	 * Forgets every object the broad phase is tracking.
+	 */
+	public void clear();
+}
@@ -35,4 +35,17 @@ public interface ICollection {
 	 * @return				iterator for the collection
 	 */
 	public IIterator getIterator();
+	
+	/**
+	 * @return				number of objects in the collection
+	 */
+	public int size();
+	
+	/**
+	 * Retrieves an object by position, allowing the collection to be walked without allocating an iterator.
+	 * 
+	 * @param index			position within [0, size)
+	 * @return				the object at that position
+	 */
+	public GameObject get(int index);
 }
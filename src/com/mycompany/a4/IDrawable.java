@@ -13,7 +13,7 @@ public interface IDrawable {
 	/**
 	 * 
 	 * @param g						MapView's graphics object
-	 * @param pCmpRelPrnt			MapView’s origin location (upper left corner) relative to the content pane of the Game form 
+	 * @param context				scratch state of the view drawing the object
 	 */
-	public void draw(Graphics g);
+	public void draw(Graphics g, DrawContext context);
 }
@@ -0,0 +1,19 @@
+package com.mycompany.a4;
+
+
+/**
+ * Interface for objects that want to know when a game ends. The world stops ticking once the game
+ * is over and leaves it to the listener to decide what happens next (e.g. quitting the app).
+ * 
+ * @author Eric Brown
+ */
+public interface IGameOverListener {
+	/**
+	 * Called once when the game ends.
+	 * 
+	 * @param world				the world whose game ended
+	 * @param playerWon			true if the player reached the last base first
+	 * @param message			description of how the game ended
+	 */
+	public void gameOver(GameWorld world, boolean playerWon, String message);
+}
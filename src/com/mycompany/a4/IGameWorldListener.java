@@ -0,0 +1,28 @@
+package com.mycompany.a4;
+
+
+/**
+ * Interface for views that show the state of a GameWorld. Changes are collected as a mask of the
+ * fields below and delivered at most once per frame, on the UI thread, so a listener only redoes the
+ * work for the fields that actually changed.
+ * 
+ * @author Eric Brown
+ */
+public interface IGameWorldListener {
+	public static final int CLOCK = 1;
+	public static final int LIVES = 1 << 1;
+	public static final int ENERGY = 1 << 2;
+	public static final int DAMAGE = 1 << 3;
+	public static final int BASE = 1 << 4;
+	public static final int SOUND = 1 << 5;
+	public static final int OBJECTS = 1 << 6;  // Objects moved, appeared, disappeared or changed how they look.
+	public static final int ALL = CLOCK | LIVES | ENERGY | DAMAGE | BASE | SOUND | OBJECTS;
+	
+	/**
+	 * Called when parts of the world have changed since the last call.
+	 * 
+	 * @param world				the world that changed
+	 * @param changes			mask of the fields that changed
+	 */
+	public void worldChanged(GameWorld world, int changes);
+}
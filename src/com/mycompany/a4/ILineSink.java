@@ -0,0 +1,20 @@
+package com.mycompany.a4;
+
+
+/**
+ * Interface for anything that receives the line segments a curve is broken into, such as a graphics
+ * object drawing them or a benchmark counting them.
+ * 
+ * @author Eric Brown
+ */
+public interface ILineSink {
+	/**
+	 * Receives one line segment.
+	 * 
+	 * @param x1				x coordinate of the start of the line
+	 * @param y1				y coordinate of the start of the line
+	 * @param x2				x coordinate of the end of the line
+	 * @param y2				y coordinate of the end of the line
+	 */
+	public void addLine(double x1, double y1, double x2, double y2);
+}
@@ -0,0 +1,19 @@
+package com.mycompany.a4;
+
+
+/**
+ * Interface for work that can be split into index ranges and run by a WorkerPool.
+ * 
+ * @author Eric Brown
+ */
+public interface IRangeTask {
+	/**
+	 * Runs the task over part of its index range. Ranges handed out by one call to WorkerPool.invoke never
+	 * overlap, and one worker only ever runs one range at a time.
+	 * 
+	 * @param start				first index to process (inclusive)
+	 * @param end				last index to process (exclusive)
+	 * @param worker			index of the worker running the range, within [0, WorkerPool.getWorkerCount())
+	 */
+	public void run(int start, int end, int worker);
+}
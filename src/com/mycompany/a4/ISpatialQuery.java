@@ -0,0 +1,23 @@
+package com.mycompany.a4;
+
+
+/**
+ * Interface for broad phases that can also find the objects within a region of the world without
+ * looking at every object, e.g. to only draw the objects inside the map's window.
+ *
+ * @author Eric Brown
+ */
+public interface ISpatialQuery {
+	
+	/**
+	 * Adds every object whose bounding box overlaps the region to the buffer, each object once. Only
+	 * the objects the broad phase saw on its last findCandidatePairs are considered.
+	 *
+	 * @param left				smallest x of the region
+	 * @param bottom			smallest y of the region
+	 * @param right				largest x of the region
+	 * @param top				largest y of the region
+	 * @param result			buffer that receives the objects
+	 */
+	public void queryRegion(float left, float bottom, float right, float top, GameObjectBuffer result);
+}
@@ -0,0 +1,173 @@
+package com.mycompany.a4;
+
+
+/**
+ * LongKeyMap maps long keys to objects. Like PairSet it uses open addressing over primitive arrays, so
+ * looking up, adding and removing entries does not box the key or allocate once the table is big enough.
+ *
+ * @author Eric Brown
+ */
+public class LongKeyMap<V> {
+	private static final int INITIAL_CAPACITY = 64;  // Must be a power of two.
+	
+	private long[] keys = new long[INITIAL_CAPACITY];
+	private Object[] values = new Object[INITIAL_CAPACITY];  // Null marks an empty slot.
+	private int size = 0;
+	
+	/**
+	 * @param key				key to look up
+	 * @return					the value stored under the key, null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int slot = find(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+	
+	/**
+	 * Stores a value under a key, replacing the value already stored under it.
+	 *
+	 * @param key				key to store the value under
+	 * @param value				value to store, not null
+	 */
+	public void put(long key, V value) {
+		int slot = find(key);
+		
+		if (slot >= 0) {
+			values[slot] = value;
+			return;
+		}
+		
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		insertSlot(key, value);
+		size++;
+	}
+	
+	/**
+	 * Removes the value stored under a key.
+	 *
+	 * @param key				key to remove
+	 * @return					the value that was stored under the key, null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int slot = find(key);
+		
+		if (slot < 0) {
+			return null;
+		}
+		
+		V value = (V) values[slot];
+		deleteSlot(slot);
+		size--;
+		return value;
+	}
+	
+	/**
+	 * @return					number of keys in the map
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Removes every key from the map without shrinking it.
+	 */
+	public void clear() {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = null;
+		}
+		size = 0;
+	}
+	
+	/**
+	 * @param key				key to look for
+	 * @return					slot holding the key, -1 if it is not in the map
+	 */
+	private int find(long key) {
+		int mask = keys.length - 1;
+		int slot = home(key, mask);
+		
+		while (values[slot] != null) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Places a key and its value in the first free slot after the key's home slot.
+	 *
+	 * @param key				key being stored
+	 * @param value				value being stored
+	 */
+	private void insertSlot(long key, Object value) {
+		int mask = keys.length - 1;
+		int slot = home(key, mask);
+		
+		while (values[slot] != null) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+	}
+	
+	/**
+	 * Empties a slot and shifts the following entries back so every key stays reachable from its home slot.
+	 *
+	 * @param slot				slot to empty
+	 */
+	private void deleteSlot(int slot) {
+		int mask = keys.length - 1;
+		int hole = slot;
+		int next = (slot + 1) & mask;
+		
+		while (values[next] != null) {
+			int home = home(keys[next], mask);
+			
+			// Move the entry into the hole unless its home lies cyclically in (hole, next].
+			boolean reachable = (hole <= next) ? (hole < home && home <= next) : (hole < home || home <= next);
+			if (!reachable) {
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[hole] = null;
+	}
+	
+	/**
+	 * Rebuilds the table with a new capacity.
+	 *
+	 * @param capacity			new number of slots, must be a power of two
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				insertSlot(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Spreads a key over a table. Shared with PairSet, and visible to tests so they can build collisions.
+	 *
+	 * @param key				key to hash
+	 * @param mask				table size minus one
+	 * @return					the slot the key would ideally occupy
+	 */
+	static int home(long key, int mask) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+}
@@ -1,25 +1,78 @@
 package com.mycompany.a4;
 
-import java.util.Observer;
-import java.util.Observable;
-
 import com.codename1.charts.util.ColorUtil;
 import com.codename1.ui.Container;
+import com.codename1.ui.Font;
 import com.codename1.ui.Graphics;
+import com.codename1.ui.Image;
 import com.codename1.ui.Transform;
 import com.codename1.ui.geom.Point;
 
 
 /**
  * MapView represents a map of the current game state to be displayed in the center of
- * the screen. It observes the game world to update the map accordingly.
+ * the screen. It listens to the game world to update the map accordingly.
  * 
  * @author Eric Brown
  */
-public class MapView extends Container implements Observer {
+public class MapView extends Container implements IGameWorldListener {
+	private static final float CULL_PADDING = 128;  // World units the window is grown by before culling.
+	private static final float DIRTY_PADDING = 96;  // World units marked around a moving object, for arms and rotated corners.
+	private static final int PREDICTED_STEPS = 2;  // Steps of movement marked ahead of where an object was drawn.
+	private static final int TILE_SIZE = 64;  // Pixels per side of the tiles that are repainted.
+	
 	private GameWorld gw;
+	private SnapshotBuffer snapshots;  // Set when the world is simulated on its own thread.
+	private float interpolation = 1;  // Fraction of a simulation step blended in when drawing the live world.
+	private GameObjectBuffer visibleObjects = new GameObjectBuffer();
+	private DrawContext drawContext = new DrawContext();  // Scratch state every object is drawn with.
+	private int drawnCount = 0;  // Objects and shockwaves drawn by the last paint.
+	private int culledCount = 0;  // Objects and shockwaves skipped by the last paint.
+	private boolean drawStatsVisible = false;  // Shows the drawn and culled counts over the map.
+	private String drawStatsText = "";
+	private int drawStatsDrawn = -1;  // Counts drawStatsText was built for.
+	private int drawStatsCulled = -1;
 	private Transform theVTM = Transform.makeIdentity();
 	private Transform inverseVTM = Transform.makeIdentity();
+	private Transform displayXform = Transform.makeIdentity();  // theVTM applied around the map's position on screen.
+	private Transform savedXform = Transform.makeIdentity();  // Scratch transforms used by paint.
+	private Transform paintXform = Transform.makeIdentity();
+	private float[] pointScratch = new float[2];
+	
+	// Fixed objects drawn once into an image the size of the map, redrawn only when one of them changes,
+	// the set of objects changes, or the view is rebuilt.
+	private Image staticLayer;
+	private Graphics layerGraphics;
+	private Transform layerXform = Transform.makeIdentity();
+	private boolean layerDirty = true;
+	private int layerRevision = -1;
+	private int layerModificationCount = -1;
+	private int layerDrawnCount = 0;
+	private int layerCulledCount = 0;
+	
+	// Tiles covering where moving objects and shockwaves were drawn by the last paint and will be drawn next.
+	private DirtyTileGrid dirtyTiles = new DirtyTileGrid(TILE_SIZE);
+	private boolean tilesValid = false;
+	private int paintedWaveRevision = -1;
+	
+	// Part of the world being repainted, padded by CULL_PADDING. The whole window unless only some tiles are.
+	private float clipLeft = 0;
+	private float clipBottom = 0;
+	private float clipRight = 0;
+	private float clipTop = 0;
+	
+	// The transforms above are only rebuilt when the window is panned or zoomed, or the map moves or resizes.
+	private boolean viewDirty = true;
+	private int viewWidth = -1;
+	private int viewHeight = -1;
+	private int viewAbsoluteX = -1;
+	private int viewAbsoluteY = -1;
+	
+	// Part of the world visible on screen, found with inverseVTM.
+	private float visibleLeft = 0;
+	private float visibleBottom = 0;
+	private float visibleRight = 0;
+	private float visibleTop = 0;
 	
 	private float winLeft = 0;
 	private float winBottom = 0;
@@ -38,14 +91,69 @@ public class MapView extends Container implements Observer {
 	private float initialPointYClickLocation = 0;
 	
 	/**
-	 * Updates the map.
+	 * Updates the map if any objects changed.
 	 */
 	@Override
-	public void update(Observable observable, Object data) {
+	public void worldChanged(GameWorld world, int changes) {
 		if (this.gw == null) {  // Grab a reference to the GameWorld if the map does not already have one, used in the call to paint.
-			this.gw = (GameWorld) observable;
+			this.gw = world;
+		}
+		
+		if ((changes & OBJECTS) != 0) {
+			this.repaintChanged();
+		}
+	}
+	
+	/**
+	 * Repaints the tiles where moving objects and shockwaves were last drawn or are about to be drawn.
+	 * The whole map is repainted instead while paused, after the window was panned or zoomed, when a
+	 * Fixed object changed, when objects or shockwaves appeared, or when most of the tiles are marked.
+	 */
+	public void repaintChanged() {
+		if (gw == null || !tilesValid || Game.isPaused() || viewDirty
+				|| getWidth() != viewWidth || getHeight() != viewHeight
+				|| getAbsoluteX() != viewAbsoluteX || getAbsoluteY() != viewAbsoluteY
+				|| dirtyTiles.getMarkedCount() * 2 > dirtyTiles.getTileCount()) {
+			this.repaint();
+			return;
+		}
+		
+		// Compared against what the next paint will draw: the latest snapshot if there is one, else the live world.
+		WorldSnapshot snapshot = snapshots != null ? snapshots.acquire() : null;
+		int revision = snapshot != null ? snapshot.getFixedRevision() : gw.getObjectCollection().getFixedRevision();
+		int modificationCount = snapshot != null ? snapshot.getModificationCount() : gw.getObjectCollection().getModificationCount();
+		int waveRevision = snapshot != null ? snapshot.getShockWaves().getRevision() : gw.getShockWaves().getRevision();
+		
+		if (revision != layerRevision || modificationCount != layerModificationCount || waveRevision != paintedWaveRevision) {
+			this.repaint();
+			return;
+		}
+		
+		// One repaint per run of marked tiles in each row.
+		int tileSize = dirtyTiles.getTileSize();
+		int columns = dirtyTiles.getColumns();
+		
+		for (int row = 0; row < dirtyTiles.getRows(); row++) {
+			int column = 0;
+			
+			while (column < columns) {
+				if (!dirtyTiles.isMarked(column, row)) {
+					column++;
+					continue;
+				}
+				
+				int start = column;
+				while (column < columns && dirtyTiles.isMarked(column, row)) {
+					column++;
+				}
+				
+				int x = start * tileSize;
+				int y = row * tileSize;
+				int width = Math.min(column * tileSize, viewWidth) - x;
+				int height = Math.min(y + tileSize, viewHeight) - y;
+				this.repaint(viewAbsoluteX + x, viewAbsoluteY + y, width, height);
+			}
 		}
-		this.repaint();
 	}
 	
 	/**
@@ -59,44 +167,456 @@ public class MapView extends Container implements Observer {
 		
 		maxWinWidth = initialWidth * MAX_SIZE_FACTOR;
 		minWinWidth = initialWidth / MAX_SIZE_FACTOR;
+		viewDirty = true;
 	}
 	
 	/**
-	 * Draws the map (and in-game objects) on the screen.
+	 * Draws the map (and in-game objects) on the screen. Objects outside the visible part of the world
+	 * are culled: it is padded by CULL_PADDING to allow for objects drawn slightly outside their bounding
+	 * box and for movement since the broad phase last saw them. A snapshot finds the objects in the window
+	 * through its own grid. The live world asks the broad phase, which also holds while paused: moving
+	 * objects stay where it last saw them, and the Fixed objects the player can reposition are not drawn
+	 * here but come from the static layer, blitted underneath everything else. Only when the broad phase
+	 * has no spatial index (sweep and prune, brute force) or objects were added since it last ran is every
+	 * moving object checked, which is still much cheaper than drawing it. The static layer checks every
+	 * Fixed object when it is redrawn; there are only a few and it is rarely redrawn.
+	 * 
+	 * Only what overlaps the clip is drawn, but every moving object and shockwave in the window marks the
+	 * tiles it covers, so repaintChanged knows what to repaint next.
 	 * 
 	 * Note: the VTM transformation pipeline was sourced from Lecture 12 A from CSC 133 (Kwan).
 	 */
 	@Override
 	public void paint(Graphics g) {
 		super.paint(g);
-		Transform oldXform = Transform.makeIdentity();
-		g.getTransform(oldXform);
-		
-		Transform worldToND = buildWorldToNDXform();		
-		theVTM = buildNDToDisplayXform(this.getWidth(), this.getHeight());
-		theVTM.concatenate(worldToND);
-		
-		inverseVTM = buildWorldToNDXform();
-		inverseVTM.concatenate(buildNDToDisplayXform(this.getWidth(), this.getHeight()));
-		
-		Transform gXform = Transform.makeIdentity();
-		g.getTransform(gXform);
-		gXform.translate(getAbsoluteX(),getAbsoluteY());
-		gXform.concatenate(theVTM);
-		gXform.translate(-getAbsoluteX(),-getAbsoluteY());
-		g.setTransform(gXform);
+		updateView();
+		
+		WorldSnapshot snapshot = null;
+		if (snapshots != null && !Game.isPaused()) {  // Pausing waits for the simulation to go idle, so the live world can be drawn.
+			snapshot = snapshots.acquire();
+		}
+		boolean layerRedrawn = updateStaticLayer(snapshot);
+		
+		int clipX = g.getClipX() - getX() + getAbsoluteX();
+		int clipY = g.getClipY() - getY() + getAbsoluteY();
+		screenToWorld(clipX, clipY);
+		clipLeft = pointScratch[0] - CULL_PADDING;
+		clipTop = pointScratch[1] + CULL_PADDING;
+		screenToWorld(clipX + g.getClipWidth(), clipY + g.getClipHeight());
+		clipRight = pointScratch[0] + CULL_PADDING;
+		clipBottom = pointScratch[1] - CULL_PADDING;
+		dirtyTiles.clear();
+		
+		g.getTransform(savedXform);
+		if (staticLayer != null) {
+			g.drawImage(staticLayer, getX(), getY());
+		}
+		
+		if (savedXform.isIdentity()) {
+			g.setTransform(displayXform);
+		}
+		else {
+			paintXform.setTransform(savedXform);
+			paintXform.concatenate(displayXform);
+			g.setTransform(paintXform);
+		}
+		
+		float left = visibleLeft - CULL_PADDING;
+		float bottom = visibleBottom - CULL_PADDING;
+		float right = visibleRight + CULL_PADDING;
+		float top = visibleTop + CULL_PADDING;
+		drawnCount = 0;
+		culledCount = 0;
+		int dynamicCount = 0;
+		ShockWaveSystem waves;
+		float alpha;
+		
+		if (snapshot != null) {
+			alpha = snapshot.getInterpolation(System.nanoTime());
+			waves = snapshot.getShockWaves();
+			dynamicCount = snapshot.getMovingCount();
+			int found = snapshot.queryRegion(left, bottom, right, top);
+			
+			for (int k = 0; k < found; k++) {
+				int i = snapshot.getQueryResult(k);
 				
-		IIterator iterator = gw.getObjectCollectionIterator();
-
-		while (iterator.hasNext()) {
-			GameObject object = iterator.getNext();
+				if (snapshot.overlaps(i, alpha, left, bottom, right, top)) {
+					GameObject object = snapshot.prepare(i, alpha);
+					float previousX = snapshot.getPreviousLocationX(i);
+					float previousY = snapshot.getPreviousLocationY(i);
+					float stepX = snapshot.getLocationX(i) - previousX;
+					float stepY = snapshot.getLocationY(i) - previousY;
+					drawMoving(g, object, previousX + stepX * alpha, previousY + stepY * alpha, stepX, stepY);
+				}
+			}
+		}
+		else {
+			GameObjectList movables = gw.getObjectCollection().getMovables();
+			alpha = this.interpolation;
+			dynamicCount = movables.size();
+			waves = gw.getShockWaves();
+			
+			if (gw.queryRegion(left, bottom, right, top, visibleObjects)) {
+				for (int i = 0; i < visibleObjects.size(); i++) {
+					GameObject object = visibleObjects.get(i);
+					
+					if (!(object instanceof Fixed)) {
+						drawLive(g, object, alpha);
+					}
+				}
+				visibleObjects.clear();
+			}
+			else {
+				for (int i = 0; i < movables.size(); i++) {
+					GameObject object = movables.get(i);
+					float half = object.getSize() / 2f;
+					float x = object.getRenderLocationX(alpha);
+					float y = object.getRenderLocationY(alpha);
+					
+					if (x + half >= left && x - half <= right && y + half >= bottom && y - half <= top) {
+						drawLive(g, object, alpha);
+					}
+				}
+			}
+		}
+		culledCount = dynamicCount - drawnCount + layerCulledCount;
+		drawnCount += layerDrawnCount;
+		
+		markShockWaves(waves, alpha, left, bottom, right, top);
+		int wavesDrawn = waves.draw(g, alpha, clipLeft, clipBottom, clipRight, clipTop);
+		drawnCount += wavesDrawn;
+		culledCount += waves.size() - wavesDrawn;
+		
+		g.setTransform(savedXform);
+		paintedWaveRevision = waves.getRevision();
+		
+		if (drawStatsVisible) {
+			drawStats(g);
+		}
+		
+		// A layer redrawn during a partial repaint is only on screen inside the clip, so repaint it all next.
+		tilesValid = !layerRedrawn || (g.getClipWidth() >= getWidth() && g.getClipHeight() >= getHeight());
+	}
+	
+	/**
+	 * Rebuilds the VTM, its inverse and the visible part of the world if the window was panned or
+	 * zoomed, or the map moved or was resized, since they were last built.
+	 * 
+	 * Note: the VTM transformation pipeline was sourced from Lecture 12 A from CSC 133 (Kwan).
+	 */
+	private void updateView() {
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int absoluteX = getAbsoluteX();
+		int absoluteY = getAbsoluteY();
+		
+		if (!viewDirty && width == viewWidth && height == viewHeight && absoluteX == viewAbsoluteX && absoluteY == viewAbsoluteY) {
+			return;
+		}
+		
+		theVTM = buildNDToDisplayXform(width, height);
+		theVTM.concatenate(buildWorldToNDXform());
+		
+		// Undo the steps in the opposite order: display to ND, then ND to world.
+		inverseVTM = buildNDToWorldXform();
+		inverseVTM.concatenate(buildDisplayToNDXform(width, height));
+		
+		displayXform.setIdentity();
+		displayXform.translate(absoluteX, absoluteY);
+		displayXform.concatenate(theVTM);
+		displayXform.translate(-absoluteX, -absoluteY);
+		
+		// The display's y axis points down, so its top left corner is the world's top left.
+		screenToWorld(absoluteX, absoluteY);
+		visibleLeft = pointScratch[0];
+		visibleTop = pointScratch[1];
+		screenToWorld(absoluteX + width, absoluteY + height);
+		visibleRight = pointScratch[0];
+		visibleBottom = pointScratch[1];
+		
+		// Curves are flattened to within half a pixel at the current zoom.
+		gw.getShockWaves().setPixelSize((winRight - winLeft) / width);
+		
+		viewWidth = width;
+		viewHeight = height;
+		viewAbsoluteX = absoluteX;
+		viewAbsoluteY = absoluteY;
+		viewDirty = false;
+		layerDirty = true;
+		dirtyTiles.resize(width, height);
+	}
+	
+	/**
+	 * Redraws the Fixed objects into the static layer if any of them was moved, selected or recolored,
+	 * objects were added or removed, or the view was rebuilt since the layer was last drawn. While a
+	 * snapshot is shown the layer is drawn from it, since stations are drained and spawned as the game
+	 * runs; otherwise the live objects are drawn. The layer's image is reused unless the map was resized.
+	 * 
+	 * @param snapshot			snapshot being drawn, null to draw the live world
+	 * @return					true if the layer was redrawn
+	 */
+	private boolean updateStaticLayer(WorldSnapshot snapshot) {
+		int revision;
+		int modificationCount;
+		
+		if (snapshot != null) {
+			revision = snapshot.getFixedRevision();
+			modificationCount = snapshot.getModificationCount();
+		}
+		else {
+			revision = gw.getObjectCollection().getFixedRevision();  // Read first, so a change made while drawing is caught next time.
+			modificationCount = gw.getObjectCollection().getModificationCount();
+		}
+		
+		if (!layerDirty && revision == layerRevision && modificationCount == layerModificationCount) {
+			return false;
+		}
+		
+		int width = this.getWidth();
+		int height = this.getHeight();
+		
+		if (width <= 0 || height <= 0) {
+			return false;
+		}
+		
+		if (staticLayer == null || staticLayer.getWidth() != width || staticLayer.getHeight() != height) {
+			if (staticLayer != null) {
+				staticLayer.dispose();
+			}
+			staticLayer = Image.createImage(width, height, 0);  // Fully transparent.
+			layerGraphics = staticLayer.getGraphics();
+		}
+		else {
+			layerXform.setIdentity();
+			layerGraphics.setTransform(layerXform);
+			layerGraphics.clearRect(0, 0, width, height);
+		}
+		
+		// The image's origin is the map's top left corner, where the map's own position in its parent lands.
+		layerXform.setTransform(theVTM);
+		layerXform.translate(-getX(), -getY());
+		layerGraphics.setTransform(layerXform);
+		
+		float left = visibleLeft - CULL_PADDING;
+		float bottom = visibleBottom - CULL_PADDING;
+		float right = visibleRight + CULL_PADDING;
+		float top = visibleTop + CULL_PADDING;
+		int fixedCount = 0;
+		layerDrawnCount = 0;
+		
+		if (snapshot != null) {
+			fixedCount = snapshot.getFixedCount();
+			
+			for (int k = 0; k < fixedCount; k++) {
+				int i = snapshot.getFixed(k);
+				
+				if (snapshot.overlaps(i, 1, left, bottom, right, top)) {
+					snapshot.prepare(i, 1).draw(layerGraphics, drawContext);
+					layerDrawnCount++;
+				}
+			}
+		}
+		else {
+			GameObjectList fixed = gw.getObjectCollection().getFixed();
+			fixedCount = fixed.size();
 			
-			if (object instanceof IDrawable) {
-				((IDrawable) object).draw(g);
+			for (int i = 0; i < fixed.size(); i++) {
+				Fixed object = (Fixed) fixed.get(i);
+				float half = object.getSize() / 2f;
+				float x = object.getLocationX();
+				float y = object.getLocationY();
+				
+				if (x + half >= left && x - half <= right && y + half >= bottom && y - half <= top) {
+					object.setDrawState(x, y, object.getRotation());
+					object.setDrawAppearance(object.getColor(), object.isSelected(), object.getLabel());
+					object.draw(layerGraphics, drawContext);
+					layerDrawnCount++;
+				}
 			}
 		}
+		layerCulledCount = fixedCount - layerDrawnCount;
 		
-		g.setTransform(oldXform);
+		layerRevision = revision;
+		layerModificationCount = modificationCount;
+		layerDirty = false;
+		return true;
+	}
+	
+	/**
+	 * Converts a point on the screen to world coordinates with the inverse VTM, writing the result to
+	 * pointScratch. Objects are drawn relative to the map's parent, so the map's position within its
+	 * parent is added back.
+	 * 
+	 * @param screenX			absolute x coordinate on the screen
+	 * @param screenY			absolute y coordinate on the screen
+	 */
+	private void screenToWorld(float screenX, float screenY) {
+		pointScratch[0] = screenX - getAbsoluteX();
+		pointScratch[1] = screenY - getAbsoluteY();
+		inverseVTM.transformPoint(pointScratch, pointScratch);
+		pointScratch[0] += getX();
+		pointScratch[1] += getY();
+	}
+	
+	/**
+	 * Draws an object of the live world where it is between the last two simulation steps.
+	 * 
+	 * @param g					graphics object to draw with
+	 * @param object			the object to draw
+	 * @param alpha				how far between the last two simulation steps the object is drawn
+	 */
+	private void drawLive(Graphics g, GameObject object, float alpha) {
+		float x = object.getRenderLocationX(alpha);
+		float y = object.getRenderLocationY(alpha);
+		object.setDrawState(x, y, object.getRotation());
+		drawMoving(g, object, x, y, object.getLocationX() - object.getPreviousLocationX(), object.getLocationY() - object.getPreviousLocationY());
+	}
+	
+	/**
+	 * Marks the tiles of a moving object whose draw state is set, and draws it if it overlaps the clip.
+	 * 
+	 * @param g					graphics object to draw with
+	 * @param object			the object to draw
+	 * @param x					x coordinate the object is drawn at
+	 * @param y					y coordinate the object is drawn at
+	 * @param stepX				distance moved along x by the last simulation step
+	 * @param stepY				distance moved along y by the last simulation step
+	 */
+	private void drawMoving(Graphics g, GameObject object, float x, float y, float stepX, float stepY) {
+		float half = object.getSize() / 2f;
+		markTiles(x, y, stepX, stepY, half);
+		
+		if (x + half >= clipLeft && x - half <= clipRight && y + half >= clipBottom && y - half <= clipTop) {
+			object.draw(g, drawContext);
+			drawnCount++;
+		}
+	}
+	
+	/**
+	 * Marks the tiles of every shockwave within a region.
+	 * 
+	 * @param waves				shockwaves being drawn
+	 * @param alpha				how far between the last two steps the shockwaves are drawn
+	 * @param left				smallest x of the region
+	 * @param bottom			smallest y of the region
+	 * @param right				largest x of the region
+	 * @param top				largest y of the region
+	 */
+	private void markShockWaves(ShockWaveSystem waves, float alpha, float left, float bottom, float right, float top) {
+		float half = ShockWaveSystem.SIZE;
+		
+		for (int i = 0; i < waves.size(); i++) {
+			float previousX = waves.getPreviousLocationX(i);
+			float previousY = waves.getPreviousLocationY(i);
+			float stepX = waves.getLocationX(i) - previousX;
+			float stepY = waves.getLocationY(i) - previousY;
+			float x = previousX + stepX * alpha;
+			float y = previousY + stepY * alpha;
+			
+			if (x + half >= left && x - half <= right && y + half >= bottom && y - half <= top) {
+				markTiles(x, y, stepX, stepY, half);
+			}
+		}
+	}
+	
+	/**
+	 * Marks the tiles covering a box where it is drawn now and where it will be over the next
+	 * PREDICTED_STEPS steps if it keeps moving the same way, grown by DIRTY_PADDING. Once repainted,
+	 * they erase the box where it is and draw it where it will be.
+	 * 
+	 * @param x					x coordinate of the box's center
+	 * @param y					y coordinate of the box's center
+	 * @param stepX				distance moved along x per step
+	 * @param stepY				distance moved along y per step
+	 * @param half				half the box's size
+	 */
+	private void markTiles(float x, float y, float stepX, float stepY, float half) {
+		float reach = half + DIRTY_PADDING;
+		float endX = x + stepX * PREDICTED_STEPS;
+		float endY = y + stepY * PREDICTED_STEPS;
+		
+		// Objects are drawn relative to the map's parent, so the map's position is taken off before the VTM.
+		pointScratch[0] = Math.min(x, endX) - reach - getX();
+		pointScratch[1] = Math.max(y, endY) + reach - getY();
+		theVTM.transformPoint(pointScratch, pointScratch);
+		float left = pointScratch[0];
+		float top = pointScratch[1];
+		
+		pointScratch[0] = Math.max(x, endX) + reach - getX();
+		pointScratch[1] = Math.min(y, endY) - reach - getY();
+		theVTM.transformPoint(pointScratch, pointScratch);
+		dirtyTiles.mark(left, top, pointScratch[0], pointScratch[1]);
+	}
+	
+	/**
+	 * Draws the drawn and culled counts of this paint in the top left corner of the map. The text is only
+	 * rebuilt when a count changed, and its tiles are marked so the next partial repaint updates it.
+	 * 
+	 * @param g					graphics the map is painted with, in screen coordinates
+	 */
+	private void drawStats(Graphics g) {
+		if (drawnCount != drawStatsDrawn || culledCount != drawStatsCulled) {
+			drawStatsDrawn = drawnCount;
+			drawStatsCulled = culledCount;
+			drawStatsText = "Drawn: " + drawnCount + "  Culled: " + culledCount;
+		}
+		
+		Font font = g.getFont();
+		int padding = TILE_SIZE / 8;
+		g.setColor(ColorUtil.BLACK);
+		g.drawString(drawStatsText, getX() + padding, getY() + padding);
+		dirtyTiles.mark(padding, padding, padding + font.stringWidth(drawStatsText), padding + font.getHeight());
+	}
+	
+	/**
+	 * Setter for drawStatsVisible.
+	 * 
+	 * @param drawStatsVisible	true to show how many objects each paint drew and culled
+	 */
+	public void setDrawStatsVisible(boolean drawStatsVisible) {
+		this.drawStatsVisible = drawStatsVisible;
+	}
+	
+	/**
+	 * @return					number of objects and shockwaves drawn by the last paint
+	 */
+	public int getDrawnCount() {
+		return this.drawnCount;
+	}
+	
+	/**
+	 * @return					number of objects and shockwaves skipped by the last paint for being outside the window
+	 */
+	public int getCulledCount() {
+		return this.culledCount;
+	}
+	
+	/**
+	 * Makes the map draw robots and drones with sprites from an atlas, or with their shapes when null.
+	 * 
+	 * @param atlas				the atlas to draw with, or null
+	 */
+	public void setSpriteAtlas(SpriteAtlas atlas) {
+		drawContext.setSpriteAtlas(atlas);
+	}
+	
+	/**
+	 * Sets how far between the last two simulation steps the live world is drawn. Snapshots carry their
+	 * own timing and ignore it.
+	 * 
+	 * @param alpha				0 draws the previous step, 1 draws the current step
+	 */
+	public void setInterpolation(float alpha) {
+		this.interpolation = Math.max(0, Math.min(1, alpha));
+	}
+	
+	/**
+	 * Makes the map draw the snapshots published by a simulation thread instead of the live world.
+	 * 
+	 * @param snapshots			buffer the simulation publishes to
+	 */
+	public void setSnapshotBuffer(SnapshotBuffer snapshots) {
+		this.snapshots = snapshots;
 	}
 	
 	/**
@@ -114,6 +634,32 @@ public class MapView extends Container implements Observer {
 		return tmpXfrom;
 	}
 	
+	/**
+	 * Converts a normalized device coordinate transform to world transform, the inverse of buildWorldToNDXform.
+	 * 
+	 * @return			the world transform
+	 */
+	private Transform buildNDToWorldXform() {
+		float winWidth = winRight - winLeft;
+		float winHeight = winTop - winBottom;
+		Transform tmpXfrom = Transform.makeIdentity();
+		tmpXfrom.translate(winLeft, winBottom);
+		tmpXfrom.scale(winWidth, winHeight);
+		return tmpXfrom;
+	}
+	
+	/**
+	 * Converts a display transform to normalized device coordinate transform, the inverse of buildNDToDisplayXform.
+	 * 
+	 * @return			the normalized device transform
+	 */
+	private Transform buildDisplayToNDXform(float displayWidth, float displayHeight) {
+		Transform tmpXfrom = Transform.makeIdentity();
+		tmpXfrom.scale(1 / displayWidth, -1 / displayHeight);
+		tmpXfrom.translate(0, -displayHeight);
+		return tmpXfrom;
+	}
+	
 	/**
 	 * Converts a normalized device coordinate transform to display transform.
 	 * 
@@ -129,7 +675,8 @@ public class MapView extends Container implements Observer {
 
 	
 	/**
-	 * Handles object selection.
+	 * Handles object selection. The world is locked while objects are moved and selected, as the simulation
+	 * thread may be using it.
 	 */
 	@Override
 	public void pointerPressed(int x, int y) {
@@ -138,36 +685,35 @@ public class MapView extends Container implements Observer {
 		initialPointXClickLocation = x;
 		initialPointYClickLocation = y;
 		
-		int worldX = (int)((x - getAbsoluteX()) * currentScaleFactor + winLeft) + getAbsoluteX();
-		int worldY = (int)((-(y - getAbsoluteY())) * currentScaleFactor + winTop) + getAbsoluteY();
-				
 		if (!Game.isPaused()) {
 			return;
 		}
 		
-		worldY -= 110;
-		if (gw.isMovingObject()) {
-			Fixed movingObject = getSelectedObject();
-			
-			if (movingObject != null) {
-				movingObject.setLocationX(worldX);
-				movingObject.setLocationY(worldY);
-				movingObject.setSelected(false);
+		updateView();
+		screenToWorld(x, y);
+		int worldX = (int) pointScratch[0];
+		int worldY = (int) pointScratch[1];
+		
+		synchronized (gw) {
+			if (gw.isMovingObject()) {
+				Fixed movingObject = getSelectedObject();
+				
+				if (movingObject != null) {
+					movingObject.setLocationX(worldX);
+					movingObject.setLocationY(worldY);
+					movingObject.setSelected(false);
+				}
+				
+				gw.setMovingObject(false);
+				repaint();
+				return;
 			}
 			
-			gw.setMovingObject(false);
-			repaint();
-			return;
-		}
-		
-		IIterator iterator = gw.getObjectCollectionIterator();
-		Point point = new Point(worldX, worldY);
-		
-		while (iterator.hasNext()) {
-			GameObject object = iterator.getNext();
+			GameObjectList fixed = gw.getObjectCollection().getFixed();
+			Point point = new Point(worldX, worldY);
 			
-			if (object instanceof Fixed) {
-				Fixed selectable = (Fixed) object;
+			for (int i = 0; i < fixed.size(); i++) {
+				Fixed selectable = (Fixed) fixed.get(i);
 				boolean selected = selectable.contains(point);
 				
 				if (selected) {
@@ -196,6 +742,7 @@ public class MapView extends Container implements Observer {
 		
 		initialPointXClickLocation = x;
 		initialPointYClickLocation = y;
+		this.repaint();
 	}
 	
 	/**
@@ -205,6 +752,7 @@ public class MapView extends Container implements Observer {
 	public void panHorizontal(float dx) {
 		winLeft -= dx;
 		winRight -= dx;
+		viewDirty = true;
 	}
 	
 	/**
@@ -214,6 +762,7 @@ public class MapView extends Container implements Observer {
 	public void panVertical(float dy) {
 		winTop -= dy;
 		winBottom -= dy;
+		viewDirty = true;
 	}
 	
 	/**
@@ -222,6 +771,7 @@ public class MapView extends Container implements Observer {
 	@Override
 	public boolean pinch(float scale) {
 		zoom(scale);
+		this.repaint();
 		return true;
 	}
 	
@@ -260,6 +810,7 @@ public class MapView extends Container implements Observer {
 		
 		winWidth = winRight - winLeft;
 		currentScaleFactor = winWidth / initialWidth;  // Scale factor for x axis (equivalent to y scale factor).
+		viewDirty = true;
 	}
 	
 	
@@ -267,16 +818,13 @@ public class MapView extends Container implements Observer {
 	 * @return					a object that is currently selected if it exists
 	 */
 	public Fixed getSelectedObject() {		
-		IIterator iterator = gw.getObjectCollectionIterator();
+		GameObjectList fixed = gw.getObjectCollection().getFixed();
 		
-		while (iterator.hasNext()) {
-			GameObject current = iterator.getNext();
-			if (current instanceof Fixed) {
-				Fixed fixed = (Fixed) current;
-				
-				if (fixed.isSelected()) {
-					return fixed;
-				}
+		for (int i = 0; i < fixed.size(); i++) {
+			Fixed current = (Fixed) fixed.get(i);
+			
+			if (current.isSelected()) {
+				return current;
 			}
 		}
 		return null;
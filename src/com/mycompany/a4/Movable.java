@@ -1,7 +1,6 @@
 package com.mycompany.a4;
 
 import com.codename1.ui.Graphics;
-import com.codename1.ui.Transform;
 
 /**
  * Movable is the abstract classes that represents GameObjects whose location changes
@@ -12,8 +11,12 @@ import com.codename1.ui.Transform;
  */
 public abstract class Movable extends GameObject {
 	private static final int UNIT_CIRCLE_DEGREES = 360;
+	private static final float MAX_SPRITE_SCALE = 4;  // Zoomed in further than this, sprites cost more memory than drawing shapes saves.
+	
 	private int heading;
 	private int speed;
+	private float previousX;  // Location at the start of the current simulation step.
+	private float previousY;
 	
 	/**
 	 * Base constructor for movable objects.
@@ -25,6 +28,93 @@ public abstract class Movable extends GameObject {
 		super(size, color, locationX, locationY);
 		this.speed = initialSpeed;
 		this.heading = initialHeading;
+		this.savePreviousLocation();
+	}
+	
+	/**
+	 * Draws the object. With a sprite atlas set on the context, a pre-rendered sprite at the heading bucket closest
+	 * to the object's rotation and the scale step closest to the view's scale is drawn, rendering it
+	 * first if the atlas doesn't hold it. Otherwise, for objects that were scaled, and when zoomed in past
+	 * MAX_SPRITE_SCALE, the shapes are drawn directly at the exact rotation.
+	 */
+	@Override
+	public void draw(Graphics g, DrawContext context) {
+		SpriteAtlas atlas = context.getSpriteAtlas();
+		float viewScale = atlas != null ? context.getViewScale(g) : 0;
+		
+		if (atlas == null || isScaled() || viewScale > MAX_SPRITE_SCALE) {
+			applyModelTransform(g, context);
+			drawShape(g, getSpriteFrame());
+			restoreTransform(g, context);
+			return;
+		}
+		
+		int bucket = SpriteAtlas.getBucket(getDrawRotation());
+		int frame = getSpriteFrame();
+		int scaleStep = SpriteAtlas.getScaleStep(viewScale);
+		float scale = SpriteAtlas.getStepScale(scaleStep);
+		long key = SpriteAtlas.makeKey(getSpriteKind(), getColor(), getSize(), bucket, frame, scaleStep);
+		SpriteAtlas.Sprite sprite = atlas.get(key);
+		
+		if (sprite == null) {
+			sprite = atlas.render(this, key, bucket, frame, scale);
+		}
+		
+		// The sprite is in pixels, so undo the view's scale to draw it one pixel to a pixel.
+		applyDrawTranslation(g, context);
+		context.scale(g, 1 / scale, 1 / scale);
+		g.drawImage(sprite.getImage(), sprite.getOffsetX(), sprite.getOffsetY());
+		restoreTransform(g, context);
+	}
+	
+	/**
+	 * Draws the object's shapes around the origin, unrotated. The graphics object is already transformed
+	 * to where the shapes belong.
+	 * 
+	 * @param g					graphics object to draw with
+	 * @param frame				animation frame to draw, from getSpriteFrame
+	 */
+	protected abstract void drawShape(Graphics g, int frame);
+	
+	/**
+	 * @return					half the side of a square around the origin that holds everything drawShape draws
+	 */
+	protected abstract int getShapeExtent();
+	
+	/**
+	 * @return					kind of object in sprite keys, unique per class that draws shapes
+	 */
+	protected abstract int getSpriteKind();
+	
+	/**
+	 * @return					animation frame the object is currently in, at most 255
+	 */
+	protected int getSpriteFrame() {
+		return 0;
+	}
+	
+	/**
+	 * Remembers the current location as the start of the next simulation step, used to interpolate drawing.
+	 */
+	public void savePreviousLocation() {
+		this.previousX = getLocationX();
+		this.previousY = getLocationY();
+	}
+	
+	/**
+	 * @return			x coordinate at the start of the current simulation step
+	 */
+	@Override
+	public float getPreviousLocationX() {
+		return this.previousX;
+	}
+	
+	/**
+	 * @return			y coordinate at the start of the current simulation step
+	 */
+	@Override
+	public float getPreviousLocationY() {
+		return this.previousY;
 	}
 	
 	/**
@@ -1,7 +1,6 @@
 package com.mycompany.a4;
 import com.codename1.charts.util.ColorUtil;
 import com.codename1.ui.Graphics;
-import com.codename1.ui.Transform;
 import com.codename1.ui.geom.Point;
 import com.codename1.util.MathUtil;
 
@@ -14,6 +13,7 @@ import com.codename1.util.MathUtil;
  */
 public class NonPlayerRobot extends Robot {
 	private static final int MAX_DAMAGE_AMOUNT = 250;
+	private static final int SPRITE_KIND = 2;  // Distinct from PlayerRobot and Drone.
 	private IStrategy strategy;
 
 	
@@ -123,22 +123,30 @@ public class NonPlayerRobot extends Robot {
 	}
 	
 	/**
-	 * Draws the robot to the screen.
+	 * Draws the robot's outline.
 	 */
 	@Override
-	public void draw(Graphics g) {
+	protected void drawShape(Graphics g, int frame) {
 		float x = -this.getSize() / 2;
 		float y = -this.getSize() / 2;
-				
-		Transform oldXform = Transform.makeIdentity();
-		g.getTransform(oldXform);
 		
-		applyTranslation(g);
-		applyRotation(g);
-		applyScale(g);
 		g.setColor(this.getColor());		
 		g.drawRect((int) x, (int) y, this.getSize(), this.getSize());
-		
-		g.setTransform(oldXform);
+	}
+	
+	/**
+	 * @return					half the robot's size, plus the width of its outline
+	 */
+	@Override
+	protected int getShapeExtent() {
+		return this.getSize() / 2 + 1;
+	}
+	
+	/**
+	 * @return					kind of object in sprite keys
+	 */
+	@Override
+	protected int getSpriteKind() {
+		return SPRITE_KIND;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.mycompany.a4;
+
+import com.codename1.ui.CheckBox;
+import com.codename1.ui.Command;
+import com.codename1.ui.Dialog;
+import com.codename1.ui.events.ActionEvent;
+
+
+/**
+ * This class represents the side menu commands that toggle the game's performance options. Every change
+ * is saved for the next start; the sprite atlas and the draw stats are also switched on the running game.
+ * 
+ * @author Eric Brown
+ */
+public class OptionCommand extends Command {
+	private Game target;
+	private GameOptions options;
+	
+	/**
+	 * Constructor for OptionCommand.
+	 * 
+	 * @param command			name of the command
+	 * @param target			game the options belong to
+	 * @param options			options the game was started with
+	 */
+	public OptionCommand(String command, Game target, GameOptions options) {
+		super(command);
+		this.target = target;
+		this.options = options;
+	}
+	
+	/**
+	 * Sets the option named by the command to whether its check box is selected.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent event) {
+		boolean enabled = ((CheckBox)event.getComponent()).isSelected();
+		
+		switch (this.getCommandName()) {
+		case "Threaded Simulation":
+			System.out.println("Setting threaded simulation to " + enabled + "...");
+			options.setThreadedSimulation(enabled);
+			options.save();
+			Dialog.show("Threaded Simulation", "Takes effect the next time the game starts.", "OK", null);
+			break;
+		case "Painted Score":
+			System.out.println("Setting painted score to " + enabled + "...");
+			options.setPaintedHud(enabled);
+			options.save();
+			Dialog.show("Painted Score", "Takes effect the next time the game starts.", "OK", null);
+			break;
+		case "Sprite Atlas":
+			System.out.println("Setting sprite atlas to " + enabled + "...");
+			options.setSpriteAtlas(enabled);
+			options.save();
+			target.setSpriteAtlasEnabled(enabled);
+			break;
+		case "Draw Stats":
+			System.out.println("Setting draw stats to " + enabled + "...");
+			options.setDrawStats(enabled);
+			options.save();
+			target.setDrawStatsVisible(enabled);
+			break;
+		}
+	}
+}
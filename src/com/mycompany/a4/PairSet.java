@@ -0,0 +1,216 @@
+package com.mycompany.a4;
+
+
+/**
+ * PairSet is a set of unordered integer pairs packed into longs. It uses open addressing over a primitive
+ * table so adding, removing and looking up pairs does not box or allocate, and keeps its members in a dense
+ * array so they can be walked by index.
+ *
+ * @author Eric Brown
+ */
+public class PairSet {
+	private static final int INITIAL_CAPACITY = 64;  // Must be a power of two.
+	
+	private int[] slots = new int[INITIAL_CAPACITY];  // Index into keys plus one, zero marks an empty slot.
+	private long[] keys = new long[INITIAL_CAPACITY / 2];
+	private int size = 0;
+	
+	/**
+	 * Packs an unordered pair into a single key. The smaller number is always stored first.
+	 *
+	 * @param a					first number of the pair
+	 * @param b					second number of the pair
+	 * @return					key representing the pair
+	 */
+	public static long key(int a, int b) {
+		if (a > b) {
+			int temp = a;
+			a = b;
+			b = temp;
+		}
+		return ((long) a << 32) | (b & 0xffffffffL);
+	}
+	
+	/**
+	 * @param key				a pair key
+	 * @return					the smaller number of the pair
+	 */
+	public static int first(long key) {
+		return (int) (key >>> 32);
+	}
+	
+	/**
+	 * @param key				a pair key
+	 * @return					the larger number of the pair
+	 */
+	public static int second(long key) {
+		return (int) key;
+	}
+	
+	/**
+	 * Adds a pair to the set.
+	 *
+	 * @param key				the pair to add
+	 * @return					true if the pair was not already in the set
+	 */
+	public boolean add(long key) {
+		if (find(key) >= 0) {
+			return false;
+		}
+		
+		if ((size + 1) * 2 > slots.length) {
+			resize(slots.length * 2);
+		}
+		
+		keys[size] = key;
+		insertSlot(key, size);
+		size++;
+		return true;
+	}
+	
+	/**
+	 * Removes a pair from the set.
+	 *
+	 * @param key				the pair to remove
+	 * @return					true if the pair was in the set
+	 */
+	public boolean remove(long key) {
+		int slot = find(key);
+		
+		if (slot < 0) {
+			return false;
+		}
+		
+		int index = slots[slot] - 1;
+		deleteSlot(slot);
+		size--;
+		
+		// Keep the members dense by moving the last one into the hole.
+		if (index != size) {
+			long last = keys[size];
+			keys[index] = last;
+			slots[find(last)] = index + 1;
+		}
+		return true;
+	}
+	
+	/**
+	 * @param key				the pair to look for
+	 * @return					true if the pair is in the set
+	 */
+	public boolean contains(long key) {
+		return find(key) >= 0;
+	}
+	
+	/**
+	 * @return					number of pairs in the set
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @param index				position within [0, size)
+	 * @return					the pair stored at that position
+	 */
+	public long get(int index) {
+		return this.keys[index];
+	}
+	
+	/**
+	 * Removes every pair from the set. Only the slots that are occupied are emptied, so clearing costs
+	 * the number of pairs rather than the capacity, and a table that was mostly empty is halved instead.
+	 */
+	public void clear() {
+		if (slots.length > INITIAL_CAPACITY && size * 8 < slots.length) {
+			slots = new int[slots.length / 2];
+			keys = new long[slots.length / 2];
+			size = 0;
+			return;
+		}
+		
+		int mask = slots.length - 1;
+		for (int i = 0; i < size; i++) {
+			// Entries never move while clearing, so the slot is found by probing past any already emptied.
+			int slot = LongKeyMap.home(keys[i], mask);
+			while (slots[slot] != i + 1) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = 0;
+		}
+		size = 0;
+	}
+	
+	/**
+	 * @param key				the pair to look for
+	 * @return					slot holding the pair, -1 if it is not in the set
+	 */
+	private int find(long key) {
+		int mask = slots.length - 1;
+		int slot = LongKeyMap.home(key, mask);
+		
+		while (slots[slot] != 0) {
+			if (keys[slots[slot] - 1] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Places the index of a key in the first free slot after its home slot.
+	 *
+	 * @param key				key being stored
+	 * @param index				position of the key in keys
+	 */
+	private void insertSlot(long key, int index) {
+		int mask = slots.length - 1;
+		int slot = LongKeyMap.home(key, mask);
+		
+		while (slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = index + 1;
+	}
+	
+	/**
+	 * Empties a slot and shifts the following entries back so every key stays reachable from its home slot.
+	 *
+	 * @param slot				slot to empty
+	 */
+	private void deleteSlot(int slot) {
+		int mask = slots.length - 1;
+		int hole = slot;
+		int next = (slot + 1) & mask;
+		
+		while (slots[next] != 0) {
+			int home = LongKeyMap.home(keys[slots[next] - 1], mask);
+			
+			// Move the entry into the hole unless its home lies cyclically in (hole, next].
+			boolean reachable = (hole <= next) ? (hole < home && home <= next) : (hole < home || home <= next);
+			if (!reachable) {
+				slots[hole] = slots[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		slots[hole] = 0;
+	}
+	
+	/**
+	 * Rebuilds the table with a new capacity.
+	 *
+	 * @param capacity			new number of slots, must be a power of two
+	 */
+	private void resize(int capacity) {
+		long[] newKeys = new long[capacity / 2];
+		System.arraycopy(keys, 0, newKeys, 0, size);
+		keys = newKeys;
+		slots = new int[capacity];
+		
+		for (int i = 0; i < size; i++) {
+			insertSlot(keys[i], i);
+		}
+	}
+}
@@ -2,80 +2,43 @@ package com.mycompany.a4;
 
 import com.codename1.charts.util.ColorUtil;
 import com.codename1.ui.Graphics;
-import com.codename1.ui.Transform;
 import com.codename1.ui.geom.Point;
 
 
 /**
- * Singleton class that represents the player robot in game.
+ * PlayerRobot represents the robot the player steers. Each world creates its own at the start of every life.
  * 
  * @author Eric Brown
  */
 public class PlayerRobot extends Robot {
-	private static PlayerRobot instance;
 	private static final int PLAYER_ROBOT_COLOR = ColorUtil.rgb(255, 0, 0);
-	private static float initialX = 0;
-	private static float initialY = 0;
 	
 	private static final int WHEEL_DIAMETER = 40;
 	private static final int WHEEL_COLOR = ColorUtil.rgb(64, 197, 190);
 	private static final int ARM_COLOR = ColorUtil.rgb(105, 196, 52);
 	private static final int ARM_WIDTH = 30;
+	private int[] armXPoints = new int[3];  // Reused for both arms every draw.
+	private int[] armYPoints = new int[3];
 	
-	private static int armSpeed = 35;
-	private static float currentArmDisplacement = 0;
+	private int armSpeed = 35;
+	private float currentArmDisplacement = 0;
 	private static final int ARM_MOVEMENT_DISTANCE = 25;
+	private static final int SPRITE_KIND = 1;  // Distinct from NonPlayerRobot and Drone.
 	/**
-	 * Private constructor for the player robot.
-	 */
-	private PlayerRobot() {
-		super(PLAYER_ROBOT_COLOR, initialX, initialY, 10, 0, 100);		
-	}
-	
-	/**
-	 * Getter for the player robot instance.
+	 * Constructor for the player robot.
 	 * 
-	 * @return
+	 * @param locationX			initial x coordinate of the robot's location
+	 * @param locationY			initial y coordinate of the robot's location
 	 */
-	public static PlayerRobot getInstance() {
-		if (instance == null) {
-			instance = new PlayerRobot();
-		}
-		
-		return instance;
+	public PlayerRobot(float locationX, float locationY) {
+		super(PLAYER_ROBOT_COLOR, locationX, locationY, 10, 0, 100);
 	}
 	
 	/**
-	 * Reconstructs a new player robot.
-	 * @return
-	 */
-	public static PlayerRobot resetInstance() {
-		instance = null;
-		return getInstance();
-	}
-	
-	/**
-	 * Sets the initial location of the robot which is passed to its constructor.
-	 * @param x					x location	
-	 * @param y					y location
-	 */
-	public static void setInitialLocation(float x, float y) {
-		initialX = x;
-		initialY = y;
-	}
-	
-	/**
-	 * Draws the robot to the screen.
+	 * Draws the robot's body, wheels and arms, with the arms raised by the frame's displacement.
 	 */
 	@Override
-	public void draw(Graphics g) {		
-		Transform oldXform = Transform.makeIdentity();
-		g.getTransform(oldXform);
-		
-		applyTranslation(g);
-		applyRotation(g);
-		applyScale(g);
-		
+	protected void drawShape(Graphics g, int frame) {
 		int size = this.getSize();
 		int x = -size / 2;
 		int y = -size / 2;
@@ -96,23 +59,53 @@ public class PlayerRobot extends Robot {
 		// Draw left arm.
 		x = -size / 2;
 		y = size / 2;
-		int[] xPoints = {x, x, x - ARM_WIDTH * 2};
-		int[] yPoints = {y, y - ARM_WIDTH, y - ARM_WIDTH / 2};
+		armXPoints[0] = x;
+		armXPoints[1] = x;
+		armXPoints[2] = x - ARM_WIDTH * 2;
+		armYPoints[0] = y;
+		armYPoints[1] = y - ARM_WIDTH;
+		armYPoints[2] = y - ARM_WIDTH / 2;
 		
 		// Apply dynamic transformation.
 		for (int i = 0; i < 3; i++) {
-			yPoints[i] -= (int)currentArmDisplacement;
+			armYPoints[i] -= frame;
 		}
-		g.fillPolygon(xPoints, yPoints, 3);
+		g.fillPolygon(armXPoints, armYPoints, 3);
 		
 		// Draw right arm.
 		x = -size / 2;
 		y = size / 2;
-		xPoints = new int[] {x + size, x + size, x + ARM_WIDTH * 2 + size};
-		
-		g.fillPolygon(xPoints, yPoints, 3);
+		armXPoints[0] = x + size;
+		armXPoints[1] = x + size;
+		armXPoints[2] = x + ARM_WIDTH * 2 + size;
 		
-		g.setTransform(oldXform);
+		g.fillPolygon(armXPoints, armYPoints, 3);
+	}
+	
+	/**
+	 * @return					half the robot's size, plus the reach of its arms or wheels, whichever is further
+	 */
+	@Override
+	protected int getShapeExtent() {
+		return this.getSize() / 2 + Math.max(ARM_WIDTH * 2, WHEEL_DIAMETER / 2);
+	}
+	
+	/**
+	 * @return					kind of object in sprite keys
+	 */
+	@Override
+	protected int getSpriteKind() {
+		return SPRITE_KIND;
+	}
+	
+	/**
+	 * The arms move a whole unit at a time when drawn, so each unit of displacement is a frame.
+	 * 
+	 * @return					the arms' current displacement
+	 */
+	@Override
+	protected int getSpriteFrame() {
+		return (int) currentArmDisplacement;
 	}
 	
 	@Override
@@ -26,6 +26,7 @@ public abstract class Robot extends Movable implements ISteerable {
 	private int damageLevel = 0;  // Robots start off with no damage taken.
 	private int lastBaseReached = 1;
 	private int maxDamage = 0;
+	private GameWorld world;  // World the robot plays its sounds through, null for none.
 	
 	/**
 	 * Robot constructor.
@@ -42,6 +43,15 @@ public abstract class Robot extends Movable implements ISteerable {
 		this.maxDamage = maxDamage;
 	}
 	
+	/**
+	 * Setter for world.
+	 * 
+	 * @param world			world whose audio sink the robot plays its sounds through
+	 */
+	public void setWorld(GameWorld world) {
+		this.world = world;
+	}
+	
 	/**
 	 * Moves the robot by 1 time unit. This is based on the robot's speed, heading, and turning direction.
 	 */
@@ -217,6 +227,24 @@ public abstract class Robot extends Movable implements ISteerable {
 	}
 	
 
+	/**
+	 * Plays "crash.wav" through the robot's world, if it has one.
+	 */
+	private void playCrashSound() {
+		if (world != null) {
+			world.playCrashSound();
+		}
+	}
+	
+	/**
+	 * Plays "charge.wav" through the robot's world, if it has one.
+	 */
+	private void playChargeSound() {
+		if (world != null) {
+			world.playChargeSound();
+		}
+	}
+	
 	/**
 	 * Handles the robots state when colliding with another gameObject, does not affect the other objects state.
 	 */
@@ -224,11 +252,11 @@ public abstract class Robot extends Movable implements ISteerable {
 	public void handleCollision(GameObject otherObject) {
 		if (otherObject instanceof Drone) {
 			this.damage(Drone.DAMAGE_TO_OTHER_ENTITIES);
-			GameWorld.playCrashSound();
+			playCrashSound();
 		}
 		else if (otherObject instanceof NonPlayerRobot) {
 			this.damage(Robot.DAMAGE_TO_OTHER_ENTITIES);
-			GameWorld.playCrashSound();
+			playCrashSound();
 		}
 		else if (otherObject instanceof Base) {
 			Base base = (Base) otherObject;
@@ -240,7 +268,7 @@ public abstract class Robot extends Movable implements ISteerable {
 			EnergyStation station = (EnergyStation) otherObject;
 			if (station.hasEnergy()) {
 				this.chargeRobot(station.drainEnergy());
-				GameWorld.playChargeSound();
+				playChargeSound();
 			}
 		}
 	}
@@ -0,0 +1,217 @@
+package com.mycompany.a4;
+
+import com.codename1.ui.Component;
+import com.codename1.ui.Font;
+import com.codename1.ui.Graphics;
+import com.codename1.ui.geom.Dimension;
+import com.codename1.ui.plaf.Style;
+
+
+/**
+ * ScoreHud shows the same score line as ScoreView, but paints it itself in a single component instead
+ * of using six labels. Each field keeps its text as characters and only reformats them when its value
+ * changes, and only the part of the HUD holding a changed field is repainted, so nothing is laid out
+ * again and no strings are built while the game runs.
+ *
+ * @author Eric Brown
+ */
+public class ScoreHud extends Component implements IGameWorldListener {
+	private static final int CLOCK_FIELD = 0;
+	private static final int LIVES_FIELD = 1;
+	private static final int BASE_FIELD = 2;
+	private static final int ENERGY_FIELD = 3;
+	private static final int DAMAGE_FIELD = 4;
+	private static final int SOUND_FIELD = 5;
+	private static final int FIELD_COUNT = 6;
+	private static final String WIDEST_VALUE = "00000";  // Room left for a value when working out the preferred size.
+	
+	private HudField[] fields = new HudField[FIELD_COUNT];
+	
+	/**
+	 * Constructor for ScoreHud.
+	 */
+	public ScoreHud() {
+		fields[CLOCK_FIELD] = new HudField("Time: ");
+		fields[LIVES_FIELD] = new HudField("Lives Left: ");
+		fields[BASE_FIELD] = new HudField("Last Base: ");
+		fields[ENERGY_FIELD] = new HudField("Energy Left: ");
+		fields[DAMAGE_FIELD] = new HudField("Damage: ");
+		fields[SOUND_FIELD] = new HudField("Sound Enabled: ");
+		
+		fields[CLOCK_FIELD].setValue(0);
+		fields[LIVES_FIELD].setValue(3);
+		fields[BASE_FIELD].setValue(1);
+		fields[ENERGY_FIELD].setValue(100);
+		fields[DAMAGE_FIELD].setValue(0);
+		fields[SOUND_FIELD].setSuffix("OFF");
+	}
+	
+	/**
+	 * Reformats the fields whose values changed and repaints just those fields.
+	 */
+	@Override
+	public void worldChanged(GameWorld gw, int changes) {
+		if ((changes & CLOCK) != 0 && fields[CLOCK_FIELD].setValue(gw.getClock())) {
+			repaintField(CLOCK_FIELD);
+		}
+		if ((changes & LIVES) != 0 && fields[LIVES_FIELD].setValue(gw.getLives())) {
+			repaintField(LIVES_FIELD);
+		}
+		if ((changes & BASE) != 0 && fields[BASE_FIELD].setValue(gw.getPlayerLastBase())) {
+			repaintField(BASE_FIELD);
+		}
+		if ((changes & ENERGY) != 0 && fields[ENERGY_FIELD].setValue((int) gw.getPlayerEnergyLeft())) {
+			repaintField(ENERGY_FIELD);
+		}
+		if ((changes & DAMAGE) != 0 && fields[DAMAGE_FIELD].setValue(gw.getPlayerDamage())) {
+			repaintField(DAMAGE_FIELD);
+		}
+		if ((changes & SOUND) != 0 && fields[SOUND_FIELD].setSuffix(gw.getSoundEnabled() ? "ON" : "OFF")) {
+			repaintField(SOUND_FIELD);
+		}
+	}
+	
+	/**
+	 * Draws the fields that fall inside the area being repainted, each in its own column like the labels
+	 * of ScoreView.
+	 */
+	@Override
+	public void paint(Graphics g) {
+		Style style = getStyle();
+		Font font = style.getFont();
+		g.setFont(font);
+		g.setColor(style.getFgColor());
+		
+		int clipLeft = g.getClipX();
+		int clipRight = clipLeft + g.getClipWidth();
+		int textY = getY() + style.getPaddingTop();
+		
+		for (int i = 0; i < FIELD_COUNT; i++) {
+			int left = getX() + getFieldLeft(i);
+			int right = getX() + getFieldLeft(i + 1);
+			
+			if (right <= clipLeft || left >= clipRight) {
+				continue;  // Not part of the repainted area.
+			}
+			
+			HudField field = fields[i];
+			g.drawChars(field.text, 0, field.length, left + style.getPaddingLeftNoRTL(), textY);
+		}
+	}
+	
+	/**
+	 * @return					room for every field with its widest expected value, one line high
+	 */
+	@Override
+	protected Dimension calcPreferredSize() {
+		Style style = getStyle();
+		Font font = style.getFont();
+		int widest = 0;
+		
+		for (int i = 0; i < FIELD_COUNT; i++) {
+			HudField field = fields[i];
+			widest = Math.max(widest, font.charsWidth(field.text, 0, field.prefixLength) + font.stringWidth(WIDEST_VALUE));
+		}
+		
+		int padding = style.getPaddingTop() * 2;
+		return new Dimension((widest + style.getPaddingLeftNoRTL() * 2) * FIELD_COUNT, font.getHeight() + padding);
+	}
+	
+	/**
+	 * Repaints only the column holding a field.
+	 *
+	 * @param index				the field to repaint
+	 */
+	private void repaintField(int index) {
+		int left = getFieldLeft(index);
+		this.repaint(getAbsoluteX() + left, getAbsoluteY(), getFieldLeft(index + 1) - left, getHeight());
+	}
+	
+	/**
+	 * @param index				field index, or FIELD_COUNT for the right edge of the last field
+	 * @return					x offset of the field's column within the component
+	 */
+	private int getFieldLeft(int index) {
+		return getWidth() * index / FIELD_COUNT;
+	}
+	
+	
+	/**
+	 * HudField is one "Name: value" entry of the HUD. The name is written into its characters once and
+	 * only the value part is rewritten, in place, when the value changes.
+	 */
+	private static class HudField {
+		private static final int MAX_VALUE_LENGTH = 11;  // Enough for any int, sign included.
+		
+		private char[] text;
+		private int prefixLength;
+		private int length;
+		private int value;
+		private boolean hasValue = false;
+		private String suffix;
+		
+		/**
+		 * Constructor for HudField.
+		 *
+		 * @param prefix		name shown before the value
+		 */
+		public HudField(String prefix) {
+			this.prefixLength = prefix.length();
+			this.text = new char[prefixLength + MAX_VALUE_LENGTH];
+			prefix.getChars(0, prefixLength, text, 0);
+			this.length = prefixLength;
+		}
+		
+		/**
+		 * Shows a number after the name, formatting it only if it changed.
+		 *
+		 * @param newValue		value to show
+		 * @return				true if the shown text changed
+		 */
+		public boolean setValue(int newValue) {
+			if (hasValue && suffix == null && newValue == value) {
+				return false;
+			}
+			this.value = newValue;
+			this.hasValue = true;
+			this.suffix = null;
+			
+			// Write the digits backwards into the end of the buffer, then move them up behind the name.
+			int end = text.length;
+			int position = end;
+			long remaining = Math.abs((long) newValue);
+			
+			do {
+				text[--position] = (char) ('0' + remaining % 10);
+				remaining /= 10;
+			} while (remaining > 0);
+			
+			if (newValue < 0) {
+				text[--position] = '-';
+			}
+			
+			int digits = end - position;
+			System.arraycopy(text, position, text, prefixLength, digits);
+			this.length = prefixLength + digits;
+			return true;
+		}
+		
+		/**
+		 * Shows a fixed piece of text after the name, copying it only if it changed.
+		 *
+		 * @param newSuffix		text to show, at most MAX_VALUE_LENGTH characters
+		 * @return				true if the shown text changed
+		 */
+		public boolean setSuffix(String newSuffix) {
+			if (newSuffix.equals(suffix)) {
+				return false;
+			}
+			this.suffix = newSuffix;
+			this.hasValue = false;
+			
+			newSuffix.getChars(0, newSuffix.length(), text, prefixLength);
+			this.length = prefixLength + newSuffix.length();
+			return true;
+		}
+	}
+}
@@ -1,19 +1,17 @@
 package com.mycompany.a4;
 
-import java.util.Observer;
-import java.util.Observable;
 import com.codename1.ui.Container;
 import com.codename1.ui.Label;
 import com.codename1.ui.layouts.GridLayout;
 
 
 /**
- * ScoreView is a container for the GUI that observes the GameWorld's score and updates accordingly.
+ * ScoreView is a container for the GUI that listens to the GameWorld's score and updates accordingly.
  * 
  * @author Eric Brown
  *
  */
-public class ScoreView extends Container implements Observer {
+public class ScoreView extends Container implements IGameWorldListener {
 	private Label clockLabel = new Label();
 	private Label livesLabel = new Label();
 	private Label lastBaseLabel = new Label();
@@ -42,16 +40,28 @@ public class ScoreView extends Container implements Observer {
 	}
 	
 	/**
-	 * Changes the labels showing the score values when the GameWorld updates.
+	 * Changes the labels showing the score values that changed in the GameWorld. Labels whose values
+	 * didn't change are left alone.
 	 */
 	@Override
-	public void update(Observable observable, Object data) {
-		GameWorld gw = (GameWorld) observable;
-		clockLabel.setText("Time: " + gw.getClock());
-		livesLabel.setText("Lives Left: " + gw.getLives());
-		lastBaseLabel.setText("Last Base: " + gw.getPlayerLastBase());
-		playerEnergyLabel.setText("Energy Left: " + (int) gw.getPlayerEnergyLeft());
-		playerDamageLabel.setText("Damage: " + gw.getPlayerDamage());
-		soundLabel.setText("Sound Enabled: " + (gw.getSoundEnabled() ? "ON" : "OFF"));
+	public void worldChanged(GameWorld gw, int changes) {
+		if ((changes & CLOCK) != 0) {
+			clockLabel.setText("Time: " + gw.getClock());
+		}
+		if ((changes & LIVES) != 0) {
+			livesLabel.setText("Lives Left: " + gw.getLives());
+		}
+		if ((changes & BASE) != 0) {
+			lastBaseLabel.setText("Last Base: " + gw.getPlayerLastBase());
+		}
+		if ((changes & ENERGY) != 0) {
+			playerEnergyLabel.setText("Energy Left: " + (int) gw.getPlayerEnergyLeft());
+		}
+		if ((changes & DAMAGE) != 0) {
+			playerDamageLabel.setText("Damage: " + gw.getPlayerDamage());
+		}
+		if ((changes & SOUND) != 0) {
+			soundLabel.setText("Sound Enabled: " + (gw.getSoundEnabled() ? "ON" : "OFF"));
+		}
 	}
 }
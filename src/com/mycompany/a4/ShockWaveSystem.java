@@ -0,0 +1,456 @@
+package com.mycompany.a4;
+
+import java.util.Random;
+
+import com.codename1.charts.util.ColorUtil;
+import com.codename1.ui.Graphics;
+
+
+/**
+ * ShockWaveSystem holds every shockwave in a world. A shockwave is a randomly generated bezier curve
+ * that spawns when two robots or drones collide, drifts in a random direction and later despawns.
+ *
+ * Shockwaves only ever move and get drawn, so instead of being GameObjects they are kept as rows of
+ * plain arrays (location, velocity, time to live, control points and the flattened curve), which are
+ * reused as shockwaves expire. Spawning one doesn't allocate once the arrays are big enough, and every
+ * live shockwave is moved and drawn in a single pass.
+ *
+ * Curves are flattened until they are within half a pixel of the real curve at the map's current
+ * zoom, so a curve costs fewer segments the smaller it is on screen. The map reports its scale with
+ * setPixelSize and the curves are flattened again the next time the system is updated or drawn.
+ *
+ * @author Eric Brown
+ */
+public class ShockWaveSystem {
+	public static final int SIZE = 100;
+	public static final int COLOR = ColorUtil.BLUE;
+	public static final int SPEED = 100;
+	public static final int TIME_TO_LIVE = 8000; // Milliseconds.
+	private static final double MIN_TOLERANCE = 0.001;  // Finest tolerance used, in world units.
+	private static final double PIXEL_TOLERANCE = 0.5;  // Tolerance in pixels.
+	private static final int MAX_CURVE_DEPTH = 7;  // Deepest subdivision, at most 2^7 segments per curve.
+	private static final int CURVE_STRIDE = ((1 << MAX_CURVE_DEPTH) + 1) * 2;  // Floats reserved per curve.
+	private static final int INITIAL_CAPACITY = 32;
+	
+	private int size = 0;
+	private int revision = 0;  // Incremented whenever a shockwave is spawned.
+	private float[] locationX = new float[INITIAL_CAPACITY];
+	private float[] locationY = new float[INITIAL_CAPACITY];
+	private float[] previousX = new float[INITIAL_CAPACITY];  // Location at the start of the current step.
+	private float[] previousY = new float[INITIAL_CAPACITY];
+	private float[] velocityX = new float[INITIAL_CAPACITY];  // World units per second.
+	private float[] velocityY = new float[INITIAL_CAPACITY];
+	private int[] timeToLive = new int[INITIAL_CAPACITY];
+	private float[] controlPoints = new float[INITIAL_CAPACITY * 8];  // Four x, y pairs relative to the location.
+	private float[] curves = new float[INITIAL_CAPACITY * CURVE_STRIDE];  // x, y pairs relative to the location.
+	private int[] curveLengths = new int[INITIAL_CAPACITY];  // Floats used by each curve.
+	
+	private volatile double requestedTolerance = PIXEL_TOLERANCE;  // Set by the map, from the UI thread.
+	private double tolerance = PIXEL_TOLERANCE;  // Tolerance the curves are flattened with, in world units.
+	
+	// Stack of control point sets still to be flattened, with the depth of each. Never holds more than one per depth.
+	private double[] stack = new double[(MAX_CURVE_DEPTH + 1) * 8];
+	private int[] stackDepths = new int[MAX_CURVE_DEPTH + 1];
+	
+	private GraphicsLineSink graphicsSink = new GraphicsLineSink();  // Reused by every draw with a graphics object.
+	
+	/**
+	 * @return					number of live shockwaves
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Views that only repaint around moving shockwaves repaint everything when this changes, since a
+	 * new shockwave appears somewhere nothing was drawn before.
+	 * 
+	 * @return					number of shockwaves spawned so far
+	 */
+	public int getRevision() {
+		return this.revision;
+	}
+	
+	/**
+	 * @param index				shockwave within [0, size)
+	 * @return					x coordinate at the end of the current step
+	 */
+	public float getLocationX(int index) {
+		return locationX[index];
+	}
+	
+	/**
+	 * @param index				shockwave within [0, size)
+	 * @return					y coordinate at the end of the current step
+	 */
+	public float getLocationY(int index) {
+		return locationY[index];
+	}
+	
+	/**
+	 * @param index				shockwave within [0, size)
+	 * @return					x coordinate at the start of the current step
+	 */
+	public float getPreviousLocationX(int index) {
+		return previousX[index];
+	}
+	
+	/**
+	 * @param index				shockwave within [0, size)
+	 * @return					y coordinate at the start of the current step
+	 */
+	public float getPreviousLocationY(int index) {
+		return previousY[index];
+	}
+	
+	/**
+	 * Spawns a shockwave with a random heading and curve.
+	 *
+	 * @param x					initial x location
+	 * @param y					initial y location
+	 * @param generator			source of the random heading and curve
+	 */
+	public void spawn(float x, float y, Random generator) {
+		if (size == locationX.length) {
+			grow(size * 2);
+		}
+		
+		int index = size++;
+		revision++;
+		double headingInRadians = Math.toRadians(90 - generator.nextInt(360));
+		locationX[index] = x;
+		locationY[index] = y;
+		previousX[index] = x;
+		previousY[index] = y;
+		velocityX[index] = (float) (Math.cos(headingInRadians) * SPEED);
+		velocityY[index] = (float) (Math.sin(headingInRadians) * SPEED);
+		timeToLive[index] = TIME_TO_LIVE;
+		
+		for (int i = 0; i < 8; i++) {
+			controlPoints[index * 8 + i] = generator.nextInt(2 * SIZE) - SIZE;
+		}
+		
+		// The control points never change, so the curve is only subdivided again when the zoom changes.
+		flattenCurve(index);
+	}
+	
+	/**
+	 * Sets how big a pixel currently is in the world, which decides how finely curves are flattened.
+	 * The tolerance is rounded down to MIN_TOLERANCE times a power of two, so small zoom steps don't flatten
+	 * every curve again.
+	 *
+	 * @param worldUnitsPerPixel	width of a pixel in world units
+	 */
+	public void setPixelSize(double worldUnitsPerPixel) {
+		double wanted = Math.max(MIN_TOLERANCE, worldUnitsPerPixel * PIXEL_TOLERANCE);
+		double rounded = MIN_TOLERANCE;
+		
+		while (rounded * 2 <= wanted) {
+			rounded *= 2;
+		}
+		this.requestedTolerance = rounded;
+	}
+	
+	/**
+	 * @return					the tolerance new curves are flattened with, in world units
+	 */
+	public double getTolerance() {
+		return this.tolerance;
+	}
+	
+	/**
+	 * Moves every shockwave and removes the ones that reached the end of their lifetime. The last
+	 * shockwave takes the place of a removed one, so the live ones always fill the start of the arrays.
+	 *
+	 * @param milliseconds		length of the step
+	 */
+	public void update(long milliseconds) {
+		applyRequestedTolerance();
+		float seconds = (float) milliseconds / 1000;
+		int i = 0;
+		
+		while (i < size) {
+			timeToLive[i] -= milliseconds;
+			
+			if (timeToLive[i] <= 0) {
+				remove(i);
+				continue;  // The shockwave moved into this row hasn't been updated yet.
+			}
+			
+			previousX[i] = locationX[i];
+			previousY[i] = locationY[i];
+			locationX[i] += velocityX[i] * seconds;
+			locationY[i] += velocityY[i] * seconds;
+			i++;
+		}
+	}
+	
+	/**
+	 * Removes every shockwave.
+	 */
+	public void clear() {
+		this.size = 0;
+	}
+	
+	/**
+	 * Draws every shockwave within a region with a graphics object.
+	 *
+	 * @param g					graphics object to draw with, already transformed to world coordinates
+	 * @param alpha				how far between the last two steps to draw the shockwaves, in [0, 1]
+	 * @param left				smallest x of the region
+	 * @param bottom			smallest y of the region
+	 * @param right				largest x of the region
+	 * @param top				largest y of the region
+	 * @return					number of shockwaves drawn
+	 */
+	public int draw(Graphics g, float alpha, float left, float bottom, float right, float top) {
+		g.setColor(COLOR);
+		graphicsSink.setGraphics(g);
+		return draw(graphicsSink, alpha, left, bottom, right, top);
+	}
+	
+	/**
+	 * Sends the line segments of every shockwave within a region to a sink. A curve never leaves the box
+	 * its control points span, so shockwaves further than SIZE outside the region are skipped. The system
+	 * must not be updated on another thread while it is drawn.
+	 *
+	 * @param sink				receives the line segments, in world coordinates
+	 * @param alpha				how far between the last two steps to draw the shockwaves, in [0, 1]
+	 * @param left				smallest x of the region
+	 * @param bottom			smallest y of the region
+	 * @param right				largest x of the region
+	 * @param top				largest y of the region
+	 * @return					number of shockwaves drawn
+	 */
+	public int draw(ILineSink sink, float alpha, float left, float bottom, float right, float top) {
+		applyRequestedTolerance();  // When paused nothing updates the system, so zooming is picked up here.
+		int drawn = 0;
+		
+		for (int i = 0; i < size; i++) {
+			float originX = previousX[i] + (locationX[i] - previousX[i]) * alpha;
+			float originY = previousY[i] + (locationY[i] - previousY[i]) * alpha;
+			
+			if (originX + SIZE < left || originX - SIZE > right || originY + SIZE < bottom || originY - SIZE > top) {
+				continue;
+			}
+			drawn++;
+			
+			int start = i * CURVE_STRIDE;
+			int end = start + curveLengths[i];
+			
+			for (int j = start + 2; j < end; j += 2) {
+				sink.addLine(originX + curves[j - 2], originY + curves[j - 1], originX + curves[j], originY + curves[j + 1]);
+			}
+		}
+		return drawn;
+	}
+	
+	/**
+	 * Copies every shockwave of another system into this one, for drawing on another thread.
+	 *
+	 * @param source			system to copy
+	 */
+	void copyFrom(ShockWaveSystem source) {
+		int count = source.size;
+		
+		if (count > locationX.length) {
+			grow(Math.max(count, locationX.length * 2));
+		}
+		
+		System.arraycopy(source.locationX, 0, locationX, 0, count);
+		System.arraycopy(source.locationY, 0, locationY, 0, count);
+		System.arraycopy(source.previousX, 0, previousX, 0, count);
+		System.arraycopy(source.previousY, 0, previousY, 0, count);
+		System.arraycopy(source.controlPoints, 0, controlPoints, 0, count * 8);
+		System.arraycopy(source.curveLengths, 0, curveLengths, 0, count);
+		
+		for (int i = 0; i < count; i++) {
+			int start = i * CURVE_STRIDE;
+			System.arraycopy(source.curves, start, curves, start, source.curveLengths[i]);
+		}
+		this.size = count;
+		this.revision = source.revision;
+		
+		// The copy's curves match the source's tolerance, it never flattens them itself.
+		this.tolerance = source.tolerance;
+		this.requestedTolerance = source.tolerance;
+	}
+	
+	/**
+	 * Flattens every curve again if the map asked for a different tolerance since they were flattened.
+	 */
+	private void applyRequestedTolerance() {
+		double requested = this.requestedTolerance;
+		
+		if (requested == tolerance) {
+			return;
+		}
+		this.tolerance = requested;
+		
+		for (int i = 0; i < size; i++) {
+			flattenCurve(i);
+		}
+	}
+	
+	/**
+	 * Removes a shockwave by moving the last shockwave into its row.
+	 *
+	 * @param index				shockwave to remove
+	 */
+	private void remove(int index) {
+		int last = --size;
+		
+		if (index == last) {
+			return;
+		}
+		
+		locationX[index] = locationX[last];
+		locationY[index] = locationY[last];
+		previousX[index] = previousX[last];
+		previousY[index] = previousY[last];
+		velocityX[index] = velocityX[last];
+		velocityY[index] = velocityY[last];
+		timeToLive[index] = timeToLive[last];
+		System.arraycopy(controlPoints, last * 8, controlPoints, index * 8, 8);
+		curveLengths[index] = curveLengths[last];
+		System.arraycopy(curves, last * CURVE_STRIDE, curves, index * CURVE_STRIDE, curveLengths[last]);
+	}
+	
+	/**
+	 * Enlarges every array to the given capacity, keeping the live shockwaves.
+	 *
+	 * @param capacity			new capacity
+	 */
+	private void grow(int capacity) {
+		locationX = grow(locationX, capacity);
+		locationY = grow(locationY, capacity);
+		previousX = grow(previousX, capacity);
+		previousY = grow(previousY, capacity);
+		velocityX = grow(velocityX, capacity);
+		velocityY = grow(velocityY, capacity);
+		controlPoints = grow(controlPoints, capacity * 8);
+		curves = grow(curves, capacity * CURVE_STRIDE);
+		
+		int[] newTimeToLive = new int[capacity];
+		System.arraycopy(timeToLive, 0, newTimeToLive, 0, size);
+		timeToLive = newTimeToLive;
+		
+		int[] newCurveLengths = new int[capacity];
+		System.arraycopy(curveLengths, 0, newCurveLengths, 0, size);
+		curveLengths = newCurveLengths;
+	}
+	
+	/**
+	 * @param array				array to enlarge
+	 * @param capacity			new length
+	 * @return					a copy of the array with the given length
+	 */
+	private static float[] grow(float[] array, int capacity) {
+		float[] grown = new float[capacity];
+		System.arraycopy(array, 0, grown, 0, Math.min(array.length, capacity));
+		return grown;
+	}
+	
+	/** Flattens a shockwave's (cubic) Bezier curve by repeatedly subdividing its control points until
+	* they are within the tolerance of being colinear, at which time the last control point is added to
+	* the curve as the end of a line segment representing a short piece of the actual Bezier curve.
+	*
+	* The halves still to be flattened are kept on a stack instead of recursing, the left half on top so
+	* the points come out in order, and the stack is reused, so nothing is allocated.
+	*
+	* Note: the psuedocode for the subdivision was sourced from Lecture 13A from CSC 133 (Kwan).
+	*
+	* @param index				shockwave whose curve to flatten
+	*/
+	private void flattenCurve(int index) {
+		int points = index * 8;
+		int end = index * CURVE_STRIDE;
+		int start = end;
+		curves[end++] = controlPoints[points];
+		curves[end++] = controlPoints[points + 1];
+		
+		for (int i = 0; i < 8; i++) {
+			stack[i] = controlPoints[points + i];
+		}
+		stackDepths[0] = 0;
+		int top = 0;  // Number of sets on the stack, less one.
+		
+		while (top >= 0) {
+			int offset = top * 8;
+			int depth = stackDepths[top];
+			
+			if (depth == MAX_CURVE_DEPTH || straightEnough(stack, offset)) {
+				curves[end++] = (float) stack[offset + 6];
+				curves[end++] = (float) stack[offset + 7];
+				top--;
+				continue;
+			}
+			
+			// Replace the set with its right half and push the left half on top of it.
+			subdivideCurve(stack, offset, offset + 8, offset);
+			stackDepths[top] = depth + 1;
+			stackDepths[top + 1] = depth + 1;
+			top++;
+		}
+		curveLengths[index] = end - start;
+	}
+	
+	/** Determines whether the four control points starting at offset are within the tolerance of
+	* being colinear.
+	*
+	* Note: the psuedocode for this method was sourced from Lecture 13A from CSC 133 (Kwan).
+	*/
+	private boolean straightEnough(double[] q, int offset) {
+		// Find length around control polygon.
+		double d1 = lengthBetween(q, offset, offset + 2) + lengthBetween(q, offset + 2, offset + 4) + lengthBetween(q, offset + 4, offset + 6);
+		// Find distance directly between first and last control point.
+		double d2 = lengthBetween(q, offset, offset + 6);
+		
+		return Math.abs(d1 - d2) <= tolerance;
+	}
+	
+	/** Splits the control points Q starting at offset into two sets of control points R and S, written
+	* to the same array at the given offsets, such that R and S define two Bezier curve segments that
+	* together exactly match the Bezier curve defined by Q. S may overwrite Q.
+	*
+	* Note: the psuedocode for this method was sourced from Lecture 13A from CSC 133 (Kwan).
+	*/
+	private static void subdivideCurve(double[] q, int offset, int r, int s) {
+		for (int axis = 0; axis < 2; axis++) {
+			double q0 = q[offset + axis];
+			double q1 = q[offset + 2 + axis];
+			double q2 = q[offset + 4 + axis];
+			double q3 = q[offset + 6 + axis];
+			double middle = (q1 + q2) / 2.0;
+			
+			double r1 = (q0 + q1) / 2.0;  // R(1) = (Q(0)+Q(1)) / 2.0
+			double r2 = (r1 + middle) / 2.0;  // R(2) = (R(1)/2.0) + (Q(1)+Q(2))/4.0
+			double s2 = (q2 + q3) / 2.0;  // S(2) = (Q(2)+Q(3)) / 2.0
+			double s1 = (middle + s2) / 2.0;  // S(1) = (Q(1)+Q(2))/4.0 + S(2)/2.0
+			double r3 = (r2 + s1) / 2.0;  // R(3) = (R(2)+S(1)) / 2.0
+			
+			q[r + axis] = q0;  // R(0) = Q(0)
+			q[r + 2 + axis] = r1;
+			q[r + 4 + axis] = r2;
+			q[r + 6 + axis] = r3;
+			q[s + axis] = r3;  // S(0) = R(3)
+			q[s + 2 + axis] = s1;
+			q[s + 4 + axis] = s2;
+			q[s + 6 + axis] = q3;  // S(3) = Q(3)
+		}
+	}
+	
+	/**
+	 * Returns the length between two points of an array of x, y pairs.
+	 *
+	 * @param q					array holding the points
+	 * @param a					index of the first point's x
+	 * @param b					index of the second point's x
+	 * @return					the length between the points
+	 */
+	private static double lengthBetween(double[] q, int a, int b) {
+		double dx = q[b] - q[a];
+		double dy = q[b + 1] - q[a + 1];
+		return Math.sqrt((dx * dx) + (dy * dy));
+	}
+}
@@ -0,0 +1,28 @@
+package com.mycompany.a4;
+
+
+/**
+ * SilentAudioSink ignores every sound, for worlds that run without a Codename One display (e.g. on a
+ * server or in a benchmark).
+ * 
+ * @author Eric Brown
+ */
+public class SilentAudioSink implements IAudioSink {
+	@Override
+	public void playCrash() {}
+	
+	@Override
+	public void playCharge() {}
+	
+	@Override
+	public void playExplosion() {}
+	
+	@Override
+	public void playBackground() {}
+	
+	@Override
+	public void stopAll() {}
+	
+	@Override
+	public void setMuted(boolean muted) {}
+}
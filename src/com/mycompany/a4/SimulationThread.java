@@ -0,0 +1,161 @@
+package com.mycompany.a4;
+
+
+/**
+ * SimulationThread advances the game world in fixed size steps on its own thread, so a slow paint on the
+ * UI thread no longer holds the simulation back. After each batch of steps it captures a WorldSnapshot
+ * and publishes it through a SnapshotBuffer for the map to draw.
+ *
+ * The world is locked while it is stepped, captured and published, so commands issued from the UI thread
+ * (which lock it too) never see it half way through a tick. Snapshots are only ever written with the
+ * world locked, which is what lets the UI thread publish one itself while the simulation is idle.
+ *
+ * @author Eric Brown
+ */
+public class SimulationThread implements Runnable {
+	public static final int MAX_CATCH_UP_STEPS = 5;  // Most steps simulated at once, extra time is dropped.
+	private static final long NANOS_PER_MILLISECOND = 1000000;
+	private static final long PAUSED_SLEEP_MILLIS = 20;
+	
+	private GameWorld gw;
+	private SnapshotBuffer snapshots = new SnapshotBuffer();
+	private Thread thread;
+	private volatile boolean running = false;
+	private volatile boolean paused = false;
+	private volatile int stepMillis;
+	
+	/**
+	 * Constructor for SimulationThread.
+	 *
+	 * @param gw				the world to simulate
+	 * @param stepMillis		length of a simulation step in milliseconds
+	 */
+	public SimulationThread(GameWorld gw, int stepMillis) {
+		this.gw = gw;
+		this.stepMillis = stepMillis;
+	}
+	
+	/**
+	 * Publishes a snapshot of the world as it is now, so the map has one to draw before the first step,
+	 * then starts simulating on a new thread.
+	 */
+	public void start() {
+		synchronized (gw) {
+			publishSnapshot(System.nanoTime(), stepMillis * NANOS_PER_MILLISECOND);
+		}
+		running = true;
+		thread = new Thread(this);
+		thread.start();
+	}
+	
+	/**
+	 * Stops the simulation thread after its current step.
+	 */
+	public void stop() {
+		running = false;
+	}
+	
+	/**
+	 * Pauses or resumes the simulation. Time spent paused is not simulated.
+	 * 
+	 * Pausing waits for a tick in progress to finish, after which the simulation leaves the world alone
+	 * until resumed, so the UI thread may read and change it freely. Resuming first publishes a snapshot of
+	 * the world, so changes made while paused are drawn straight away.
+	 *
+	 * @param paused			true to pause, false to resume
+	 */
+	public void setPaused(boolean paused) {
+		synchronized (gw) {
+			this.paused = paused;
+			
+			if (!paused) {
+				publishSnapshot(System.nanoTime(), stepMillis * NANOS_PER_MILLISECOND);
+			}
+		}
+	}
+	
+	/**
+	 * Setter for stepMillis.
+	 *
+	 * @param stepMillis		length of a simulation step in milliseconds
+	 */
+	public void setStepMillis(int stepMillis) {
+		this.stepMillis = stepMillis;
+	}
+	
+	/**
+	 * @return					the buffer the simulation publishes its snapshots to
+	 */
+	public SnapshotBuffer getSnapshotBuffer() {
+		return this.snapshots;
+	}
+	
+	/**
+	 * Runs steps whenever they fall due and sleeps in between.
+	 */
+	@Override
+	public void run() {
+		long nextStepTime = System.nanoTime();
+		
+		while (running) {
+			long stepNanos = stepMillis * NANOS_PER_MILLISECOND;
+			long now = System.nanoTime();
+			
+			if (paused) {
+				sleep(PAUSED_SLEEP_MILLIS);
+				nextStepTime = System.nanoTime() + stepNanos;
+				continue;
+			}
+			
+			if (now < nextStepTime) {
+				sleep(Math.max(1, (nextStepTime - now) / NANOS_PER_MILLISECOND));
+				continue;
+			}
+			
+			synchronized (gw) {
+				if (paused) {
+					continue;  // Paused while waiting for the lock.
+				}
+				int steps = 0;
+				
+				while (now >= nextStepTime && steps < MAX_CATCH_UP_STEPS) {
+					gw.tick(stepMillis);
+					nextStepTime += stepNanos;
+					steps++;
+				}
+				
+				// Too far behind (e.g. a long GC pause), drop the backlog instead of trying to catch up.
+				if (now >= nextStepTime) {
+					nextStepTime = now + stepNanos;
+				}
+				
+				publishSnapshot(nextStepTime - stepNanos, stepNanos);
+			}
+		}
+	}
+	
+	/**
+	 * Captures the world into the snapshot buffer and publishes it. The world must be locked.
+	 *
+	 * @param stepTime			System.nanoTime() the last step was simulated for
+	 * @param stepNanos			length of a simulation step in nanoseconds
+	 */
+	private void publishSnapshot(long stepTime, long stepNanos) {
+		snapshots.getWriteBuffer().capture(gw.getObjectCollection(), gw.getShockWaves(), stepTime, stepNanos);
+		snapshots.publish();
+	}
+	
+	/**
+	 * Sleeps for the given time, returning early if interrupted.
+	 *
+	 * @param millis			milliseconds to sleep
+	 */
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			// Woken early, the loop checks the time again anyway.
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.mycompany.a4;
+
+
+/**
+ * SnapshotBuffer hands WorldSnapshots from the simulation thread to the UI thread without locking, using
+ * three snapshots: the one being written, the latest published one and the one being drawn. The writer
+ * never touches the snapshot the reader holds, and the reader always gets the most recent published
+ * snapshot, so neither thread ever waits for the other.
+ *
+ * Only one thread may read, and only one thread may write at a time.
+ *
+ * @author Eric Brown
+ */
+public class SnapshotBuffer {
+	private static final int BUFFER_COUNT = 3;
+	
+	private WorldSnapshot[] snapshots = new WorldSnapshot[BUFFER_COUNT];
+	private volatile int latest = -1;  // Most recently published snapshot, -1 until the first publish.
+	private volatile int reading = -1;  // Snapshot the reader is using.
+	private int writing = 0;  // Only used by the writer.
+	
+	/**
+	 * Constructor for SnapshotBuffer.
+	 */
+	public SnapshotBuffer() {
+		for (int i = 0; i < BUFFER_COUNT; i++) {
+			snapshots[i] = new WorldSnapshot();
+		}
+	}
+	
+	/**
+	 * @return					the snapshot the writer should capture into next
+	 */
+	WorldSnapshot getWriteBuffer() {
+		return snapshots[writing];
+	}
+	
+	/**
+	 * Publishes the write buffer as the latest snapshot and moves the writer on to a snapshot the reader is not using.
+	 */
+	void publish() {
+		latest = writing;
+		int held = reading;
+		
+		for (int i = 0; i < BUFFER_COUNT; i++) {
+			if (i != writing && i != held) {
+				writing = i;
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Takes the latest published snapshot for reading. It stays valid until the next call to acquire.
+	 *
+	 * @return					the latest snapshot, null if nothing has been published yet
+	 */
+	public WorldSnapshot acquire() {
+		while (true) {
+			int candidate = latest;
+			
+			if (candidate < 0) {
+				return null;
+			}
+			reading = candidate;
+			
+			// If the writer published again before it could see the new reading index, it may be reusing the candidate.
+			if (latest == candidate) {
+				return snapshots[candidate];
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.mycompany.a4;
+
+
+/**
+ * SoundAudioSink plays the game's sounds through Codename One media. The sound files are loaded the
+ * first time the sink is created, so it must only be created once the display is running.
+ * 
+ * @author Eric Brown
+ */
+public class SoundAudioSink implements IAudioSink {
+	private Sound crashSound;
+	private Sound chargeSound;
+	private Sound explosionSound;
+	private BGSound backgroundSound;
+	
+	/**
+	 * Constructor for SoundAudioSink. Creates the sound objects that the game uses.
+	 */
+	public SoundAudioSink() {
+		crashSound = new Sound("crash.wav", "wav");
+		backgroundSound = new BGSound("background.mp3", "mp3");
+		chargeSound = new Sound("charge.wav", "wav");
+		explosionSound = new Sound("explosion.wav", "wav");
+	}
+	
+	/**
+	 * Plays "crash.wav".
+	 */
+	@Override
+	public void playCrash() {
+		crashSound.play();
+	}
+	
+	/**
+	 * Plays "charge.wav".
+	 */
+	@Override
+	public void playCharge() {
+		chargeSound.play();
+	}
+	
+	/**
+	 * Plays "explosion.wav".
+	 */
+	@Override
+	public void playExplosion() {
+		explosionSound.play();
+	}
+	
+	/**
+	 * Plays "background.mp3".
+	 */
+	@Override
+	public void playBackground() {
+		backgroundSound.run();
+	}
+	
+	/**
+	 * Stops all sounds.
+	 */
+	@Override
+	public void stopAll() {
+		for (Sound s : getAllSounds()) {
+			s.stop();
+		}
+	}
+	
+	/**
+	 * Mutes or unmutes all sounds.
+	 */
+	@Override
+	public void setMuted(boolean muted) {
+		for (Sound s : getAllSounds()) {
+			if (muted) {
+				s.mute();
+			}
+			else {
+				s.unmute();
+			}
+		}
+	}
+	
+	/**
+	 * @return					every sound the game uses
+	 */
+	private Sound[] getAllSounds() {
+		return new Sound[] {crashSound, chargeSound, explosionSound, backgroundSound};
+	}
+}
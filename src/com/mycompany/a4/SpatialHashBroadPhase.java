@@ -0,0 +1,326 @@
+package com.mycompany.a4;
+
+import java.util.ArrayList;
+
+
+/**
+ * SpatialHashBroadPhase buckets every object into the cells of a uniform grid that its bounding box
+ * touches. Only objects sharing a cell are reported as candidate pairs. The grid is kept between ticks
+ * and an object is only re-bucketed when it crosses into a different range of cells. Cells are found by
+ * their packed coordinates and objects by their id, both in LongKeyMaps, so nothing is boxed per lookup.
+ *
+ * The grid also answers region queries by only visiting the cells the region covers.
+ *
+ * @author Eric Brown
+ */
+public class SpatialHashBroadPhase implements IBroadPhase, ISpatialQuery {
+	public static final int DEFAULT_CELL_SIZE = 128;
+	
+	private int cellSize;
+	private int stamp = 0;  // Incremented every tick, used to find objects that have left the game.
+	
+	private LongKeyMap<Entry> entries = new LongKeyMap<Entry>();  // Keyed by object id.
+	private ArrayList<Entry> entryList = new ArrayList<Entry>();
+	private LongKeyMap<Cell> cells = new LongKeyMap<Cell>();  // Keyed by cellKey.
+	private ArrayList<Cell> activeCells = new ArrayList<Cell>();
+	
+	/**
+	 * Constructor for SpatialHashBroadPhase using the default cell size.
+	 */
+	public SpatialHashBroadPhase() {
+		this(DEFAULT_CELL_SIZE);
+	}
+	
+	/**
+	 * Constructor for SpatialHashBroadPhase.
+	 *
+	 * @param cellSize			width and height of a grid cell in world units
+	 */
+	public SpatialHashBroadPhase(int cellSize) {
+		this.cellSize = cellSize;
+	}
+	
+	/**
+	 * Re-buckets the objects that changed cells, drops the objects that are no longer in play, and
+	 * then reports the pairs of objects that share a cell.
+	 */
+	@Override
+	public void findCandidatePairs(GameObjectCollection objects, CollisionPairBuffer pairs) {
+		stamp++;
+		
+		for (int i = 0; i < objects.size(); i++) {
+			GameObject object = objects.get(i);
+			Entry entry = entries.get(object.getId());
+			
+			if (entry == null) {
+				entry = new Entry(object);
+				entries.put(object.getId(), entry);
+				entryList.add(entry);
+				entry.computeRange();
+				insertIntoCells(entry);
+			}
+			else if (entry.computeRange()) {  // Object moved into a different range of cells.
+				removeFromCells(entry);
+				insertIntoCells(entry);
+			}
+			
+			entry.stamp = stamp;
+		}
+		
+		// Drop the objects that were not seen this tick.
+		for (int i = entryList.size() - 1; i >= 0; i--) {
+			Entry entry = entryList.get(i);
+			
+			if (entry.stamp != stamp) {
+				removeFromCells(entry);
+				entries.remove(entry.object.getId());
+				entryList.set(i, entryList.get(entryList.size() - 1));
+				entryList.remove(entryList.size() - 1);
+			}
+		}
+		
+		for (int c = 0; c < activeCells.size(); c++) {
+			Cell cell = activeCells.get(c);
+			
+			for (int i = 0; i < cell.count; i++) {
+				Entry first = cell.entries[i];
+				
+				for (int j = i + 1; j < cell.count; j++) {
+					Entry second = cell.entries[j];
+					
+					// Objects spanning several cells share more than one, only report the pair from the first shared cell.
+					if (cell.x == Math.max(first.minX, second.minX) && cell.y == Math.max(first.minY, second.minY)) {
+						pairs.add(first.object, second.object);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Visits the cells the region covers, or every object if the region covers more cells than there
+	 * are objects.
+	 */
+	@Override
+	public void queryRegion(float left, float bottom, float right, float top, GameObjectBuffer result) {
+		int minX = toCell(left);
+		int minY = toCell(bottom);
+		int maxX = toCell(right);
+		int maxY = toCell(top);
+		long cellCount = (long) (maxX - minX + 1) * (maxY - minY + 1);
+		
+		if (cellCount > entryList.size()) {
+			for (int i = 0; i < entryList.size(); i++) {
+				GameObject object = entryList.get(i).object;
+				
+				if (overlaps(object, left, bottom, right, top)) {
+					result.add(object);
+				}
+			}
+			return;
+		}
+		
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				Cell cell = cells.get(cellKey(x, y));
+				
+				if (cell == null) {
+					continue;
+				}
+				
+				for (int i = 0; i < cell.count; i++) {
+					Entry entry = cell.entries[i];
+					
+					// Objects spanning several cells are in more than one, only report them from the first visited.
+					if (x == Math.max(entry.insertedMinX, minX) && y == Math.max(entry.insertedMinY, minY)
+							&& overlaps(entry.object, left, bottom, right, top)) {
+						result.add(entry.object);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param object			object to test
+	 * @param left				smallest x of the region
+	 * @param bottom			smallest y of the region
+	 * @param right				largest x of the region
+	 * @param top				largest y of the region
+	 * @return					true if the object's bounding box overlaps the region
+	 */
+	private static boolean overlaps(GameObject object, float left, float bottom, float right, float top) {
+		return object.getBoundsRight() >= left && object.getBoundsLeft() <= right
+				&& object.getBoundsTop() >= bottom && object.getBoundsBottom() <= top;
+	}
+	
+	/**
+	 * Forgets every object and cell.
+	 */
+	@Override
+	public void clear() {
+		entries.clear();
+		entryList.clear();
+		cells.clear();
+		activeCells.clear();
+	}
+	
+	/**
+	 * Adds the entry to every cell within its current range.
+	 *
+	 * @param entry				entry to insert
+	 */
+	private void insertIntoCells(Entry entry) {
+		for (int x = entry.minX; x <= entry.maxX; x++) {
+			for (int y = entry.minY; y <= entry.maxY; y++) {
+				long key = cellKey(x, y);
+				Cell cell = cells.get(key);
+				
+				if (cell == null) {
+					cell = new Cell(x, y);
+					cells.put(key, cell);
+					cell.activeIndex = activeCells.size();
+					activeCells.add(cell);
+				}
+				cell.add(entry);
+			}
+		}
+		entry.insertedMinX = entry.minX;
+		entry.insertedMinY = entry.minY;
+		entry.insertedMaxX = entry.maxX;
+		entry.insertedMaxY = entry.maxY;
+	}
+	
+	/**
+	 * Removes the entry from every cell it was last inserted into. Cells left empty are discarded.
+	 *
+	 * @param entry				entry to remove
+	 */
+	private void removeFromCells(Entry entry) {
+		for (int x = entry.insertedMinX; x <= entry.insertedMaxX; x++) {
+			for (int y = entry.insertedMinY; y <= entry.insertedMaxY; y++) {
+				long key = cellKey(x, y);
+				Cell cell = cells.get(key);
+				
+				if (cell == null) {
+					continue;
+				}
+				cell.remove(entry);
+				
+				if (cell.count == 0) {
+					cells.remove(key);
+					Cell last = activeCells.remove(activeCells.size() - 1);
+					if (last != cell) {
+						activeCells.set(cell.activeIndex, last);
+						last.activeIndex = cell.activeIndex;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param x					cell column
+	 * @param y					cell row
+	 * @return					key that uniquely identifies the cell
+	 */
+	private static long cellKey(int x, int y) {
+		return ((long) x << 32) | (y & 0xffffffffL);
+	}
+	
+	/**
+	 * @param coordinate		world coordinate
+	 * @return					the cell column or row containing the coordinate
+	 */
+	private int toCell(float coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+	
+	/**
+	 * Tracks the range of cells an object's bounding box covers.
+	 *
+	 * @author Eric Brown
+	 */
+	private class Entry {
+		private GameObject object;
+		private int stamp;
+		private int minX, minY, maxX, maxY;
+		private int insertedMinX, insertedMinY, insertedMaxX, insertedMaxY;
+		
+		/**
+		 * Constructor for Entry.
+		 *
+		 * @param object		the object being tracked
+		 */
+		Entry(GameObject object) {
+			this.object = object;
+		}
+		
+		/**
+		 * Recomputes the cell range from the object's bounding box (same box as GameObject.collidesWith).
+		 *
+		 * @return				true if the range differs from the one the entry was last inserted with
+		 */
+		boolean computeRange() {
+			minX = toCell(object.getBoundsLeft());
+			minY = toCell(object.getBoundsBottom());
+			maxX = toCell(object.getBoundsRight());
+			maxY = toCell(object.getBoundsTop());
+			
+			return minX != insertedMinX || minY != insertedMinY || maxX != insertedMaxX || maxY != insertedMaxY;
+		}
+	}
+	
+	/**
+	 * A single grid cell holding the entries that overlap it.
+	 *
+	 * @author Eric Brown
+	 */
+	private static class Cell {
+		private int x;
+		private int y;
+		private int activeIndex;
+		private Entry[] entries = new Entry[4];
+		private int count = 0;
+		
+		/**
+		 * Constructor for Cell.
+		 *
+		 * @param x				cell column
+		 * @param y				cell row
+		 */
+		Cell(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+		
+		/**
+		 * Adds an entry to the cell.
+		 *
+		 * @param entry			entry to add
+		 */
+		void add(Entry entry) {
+			if (count == entries.length) {
+				Entry[] grown = new Entry[entries.length * 2];
+				System.arraycopy(entries, 0, grown, 0, count);
+				entries = grown;
+			}
+			entries[count++] = entry;
+		}
+		
+		/**
+		 * Removes an entry from the cell if it is present.
+		 *
+		 * @param entry			entry to remove
+		 */
+		void remove(Entry entry) {
+			for (int i = 0; i < count; i++) {
+				if (entries[i] == entry) {
+					entries[i] = entries[--count];
+					entries[count] = null;
+					return;
+				}
+			}
+		}
+	}
+}
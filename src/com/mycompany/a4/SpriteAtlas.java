@@ -0,0 +1,356 @@
+package com.mycompany.a4;
+
+import com.codename1.ui.Graphics;
+import com.codename1.ui.Image;
+import com.codename1.ui.Transform;
+
+
+/**
+ * SpriteAtlas holds pre-rendered images of movable objects, one per kind of object, color, size,
+ * heading bucket, animation frame and view scale, so an object that was drawn the same way before is
+ * drawn again with a single image instead of its shapes. Sprites are only rendered the first time they are needed,
+ * and once the images hold more than the atlas' pixel budget the least recently drawn ones are dropped.
+ *
+ * Headings are rounded to one of HEADING_BUCKETS evenly spaced angles. Sprites are rendered in pixels
+ * at the view's scale rounded to one of SCALE_STEPS steps, SCALE_STEPS_PER_DOUBLING to each doubling, so
+ * zooming never stretches a sprite by more than a few percent. Each view owns its atlas (through its
+ * DrawContext), so an atlas is only used by one thread.
+ *
+ * @author Eric Brown
+ */
+public class SpriteAtlas {
+	public static final int HEADING_BUCKETS = 72;  // 5 degrees apart.
+	private static final double BUCKET_ANGLE = 2 * Math.PI / HEADING_BUCKETS;
+	public static final int SCALE_STEPS = 256;
+	public static final int SCALE_STEPS_PER_DOUBLING = 8;  // Under 5% apart.
+	private static final int UNIT_SCALE_STEP = SCALE_STEPS / 2;
+	private static final float[] STEP_SCALES = new float[SCALE_STEPS];  // Scale of each step, built without Math.pow.
+	private static final float[] STEP_BOUNDS = new float[SCALE_STEPS];  // Smallest scale rounded to each step.
+	
+	static {
+		float stepRatio = (float) Math.sqrt(Math.sqrt(Math.sqrt(2)));  // Eighth root of 2.
+		float halfStepRatio = (float) Math.sqrt(stepRatio);
+		STEP_SCALES[UNIT_SCALE_STEP] = 1;
+		
+		for (int step = UNIT_SCALE_STEP + 1; step < SCALE_STEPS; step++) {
+			STEP_SCALES[step] = STEP_SCALES[step - 1] * stepRatio;
+		}
+		for (int step = UNIT_SCALE_STEP - 1; step >= 0; step--) {
+			STEP_SCALES[step] = STEP_SCALES[step + 1] / stepRatio;
+		}
+		for (int step = 0; step < SCALE_STEPS; step++) {
+			STEP_BOUNDS[step] = STEP_SCALES[step] / halfStepRatio;
+		}
+	}
+	
+	private int maxPixels;
+	private int usedPixels = 0;
+	private LongKeyMap<Sprite> sprites = new LongKeyMap<Sprite>();
+	private Sprite newest;  // Most recently drawn end of the list of sprites.
+	private Sprite oldest;  // Least recently drawn end, evicted first.
+	
+	// Scratch used to render sprites, so rendering only allocates the image.
+	private Transform spriteRotation = Transform.makeIdentity();
+	private Transform spriteXform = Transform.makeIdentity();
+	private float[] cornerScratch = new float[2];
+	
+	/**
+	 * Constructor for SpriteAtlas.
+	 *
+	 * @param maxPixels			most pixels the sprite images may hold in total
+	 */
+	public SpriteAtlas(int maxPixels) {
+		this.maxPixels = maxPixels;
+	}
+	
+	/**
+	 * @param rotation			rotation angle in radians
+	 * @return					the heading bucket closest to the angle, in [0, HEADING_BUCKETS)
+	 */
+	public static int getBucket(float rotation) {
+		int bucket = (int) Math.round(rotation / BUCKET_ANGLE) % HEADING_BUCKETS;
+		return bucket < 0 ? bucket + HEADING_BUCKETS : bucket;
+	}
+	
+	/**
+	 * @param bucket			heading bucket
+	 * @return					rotation angle in radians the bucket's sprites are rendered at
+	 */
+	public static float getBucketRotation(int bucket) {
+		return (float) (bucket * BUCKET_ANGLE);
+	}
+	
+	/**
+	 * @param scale				pixels per world unit the sprite will be drawn at
+	 * @return					the scale step closest to the scale, in [0, SCALE_STEPS)
+	 */
+	public static int getScaleStep(float scale) {
+		int low = 0;
+		int high = SCALE_STEPS - 1;
+		
+		// Last step whose lower bound is at most the scale.
+		while (low < high) {
+			int middle = (low + high + 1) / 2;
+			
+			if (STEP_BOUNDS[middle] <= scale) {
+				low = middle;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * @param step				scale step
+	 * @return					pixels per world unit the step's sprites are rendered at
+	 */
+	public static float getStepScale(int step) {
+		return STEP_SCALES[step];
+	}
+	
+	/**
+	 * Packs everything that decides what a sprite looks like into a key.
+	 *
+	 * @param kind				kind of object, unique per class drawn through the atlas
+	 * @param color				color of the object, alpha is ignored
+	 * @param size				size of the object
+	 * @param bucket			heading bucket
+	 * @param frame				animation frame
+	 * @param scaleStep			scale step
+	 * @return					key of the sprite
+	 */
+	public static long makeKey(int kind, int color, int size, int bucket, int frame, int scaleStep) {
+		return ((long) (scaleStep & 0xFF) << 56)
+				| ((long) (kind & 0xF) << 52)
+				| ((long) (color & 0xFFFFFF) << 28)
+				| ((long) (size & 0xFFF) << 16)
+				| ((bucket & 0xFF) << 8)
+				| (frame & 0xFF);
+	}
+	
+	/**
+	 * Looks up a sprite and marks it as the most recently drawn.
+	 *
+	 * @param key				key made with makeKey
+	 * @return					the sprite, or null if it was never rendered or has been dropped
+	 */
+	public Sprite get(long key) {
+		Sprite sprite = sprites.get(key);
+		
+		if (sprite != null && sprite != newest) {
+			unlink(sprite);
+			link(sprite);
+		}
+		return sprite;
+	}
+	
+	/**
+	 * Renders an object's shapes, rotated to a heading bucket and scaled to pixels, into a new sprite
+	 * just big enough to hold them and adds it to the atlas.
+	 * 
+	 * @param object			object to render
+	 * @param key				key of the sprite, made with makeKey
+	 * @param bucket			heading bucket to render at
+	 * @param frame				animation frame to render
+	 * @param scale				pixels per world unit to render at
+	 * @return					the new sprite
+	 */
+	public Sprite render(Movable object, long key, int bucket, int frame, float scale) {
+		object.buildRotation(spriteRotation, getBucketRotation(bucket));
+		
+		// Bounds of the rotated square holding the shapes, in pixels.
+		int extent = object.getShapeExtent();
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+		
+		for (int corner = 0; corner < 4; corner++) {
+			cornerScratch[0] = (corner & 1) == 0 ? -extent : extent;
+			cornerScratch[1] = (corner & 2) == 0 ? -extent : extent;
+			spriteRotation.transformPoint(cornerScratch, cornerScratch);
+			minX = Math.min(minX, cornerScratch[0] * scale);
+			minY = Math.min(minY, cornerScratch[1] * scale);
+			maxX = Math.max(maxX, cornerScratch[0] * scale);
+			maxY = Math.max(maxY, cornerScratch[1] * scale);
+		}
+		
+		int left = (int) Math.floor(minX) - 1;  // A pixel of room for anti-aliased edges.
+		int bottom = (int) Math.floor(minY) - 1;
+		int width = (int) Math.ceil(maxX) + 1 - left;
+		int height = (int) Math.ceil(maxY) + 1 - bottom;
+		
+		Image image = Image.createImage(width, height, 0);  // Fully transparent.
+		Graphics imageGraphics = image.getGraphics();
+		spriteXform.setTranslation(-left, -bottom);
+		spriteXform.scale(scale, scale);
+		spriteXform.concatenate(spriteRotation);
+		imageGraphics.setTransform(spriteXform);
+		object.drawShape(imageGraphics, frame);
+		
+		return add(key, image, left, bottom);
+	}
+	
+	/**
+	 * Adds a newly rendered sprite, dropping the least recently drawn ones if the images would hold more
+	 * than the pixel budget. A sprite bigger than the whole budget is still returned but not kept.
+	 *
+	 * @param key				key made with makeKey
+	 * @param image				the rendered sprite
+	 * @param offsetX			x offset to draw the image at in pixels, relative to the object's location
+	 * @param offsetY			y offset to draw the image at in pixels, relative to the object's location
+	 * @return					the new sprite
+	 */
+	public Sprite add(long key, Image image, int offsetX, int offsetY) {
+		Sprite sprite = new Sprite(key, image, offsetX, offsetY);
+		
+		if (sprite.pixels > maxPixels) {
+			return sprite;
+		}
+		
+		Sprite replaced = sprites.remove(key);
+		if (replaced != null) {
+			remove(replaced);
+		}
+		
+		while (usedPixels + sprite.pixels > maxPixels && oldest != null) {
+			sprites.remove(oldest.key);
+			remove(oldest);
+		}
+		
+		sprites.put(key, sprite);
+		link(sprite);
+		usedPixels += sprite.pixels;
+		return sprite;
+	}
+	
+	/**
+	 * Drops every sprite.
+	 */
+	public void clear() {
+		while (oldest != null) {
+			remove(oldest);
+		}
+		sprites.clear();
+	}
+	
+	/**
+	 * @return					number of sprites held
+	 */
+	public int size() {
+		return sprites.size();
+	}
+	
+	/**
+	 * @return					pixels held by the sprite images
+	 */
+	public int getUsedPixels() {
+		return this.usedPixels;
+	}
+	
+	/**
+	 * Unlinks a sprite from the list and releases its image.
+	 *
+	 * @param sprite			sprite to remove
+	 */
+	private void remove(Sprite sprite) {
+		unlink(sprite);
+		usedPixels -= sprite.pixels;
+		sprite.image.dispose();
+	}
+	
+	/**
+	 * Links a sprite in as the most recently drawn.
+	 *
+	 * @param sprite			sprite not currently in the list
+	 */
+	private void link(Sprite sprite) {
+		sprite.older = newest;
+		sprite.newer = null;
+		
+		if (newest != null) {
+			newest.newer = sprite;
+		}
+		newest = sprite;
+		
+		if (oldest == null) {
+			oldest = sprite;
+		}
+	}
+	
+	/**
+	 * Unlinks a sprite from the list.
+	 *
+	 * @param sprite			sprite in the list
+	 */
+	private void unlink(Sprite sprite) {
+		if (sprite.older != null) {
+			sprite.older.newer = sprite.newer;
+		}
+		else {
+			oldest = sprite.newer;
+		}
+		
+		if (sprite.newer != null) {
+			sprite.newer.older = sprite.older;
+		}
+		else {
+			newest = sprite.older;
+		}
+		sprite.older = null;
+		sprite.newer = null;
+	}
+	
+	
+	/**
+	 * Sprite is one pre-rendered image, along with where to draw it relative to the object's location.
+	 */
+	public static class Sprite {
+		private long key;
+		private Image image;
+		private int offsetX;
+		private int offsetY;
+		private int pixels;
+		private Sprite older;
+		private Sprite newer;
+		
+		/**
+		 * Constructor for Sprite.
+		 *
+		 * @param key			key of the sprite
+		 * @param image			the rendered sprite
+		 * @param offsetX		x offset to draw the image at
+		 * @param offsetY		y offset to draw the image at
+		 */
+		private Sprite(long key, Image image, int offsetX, int offsetY) {
+			this.key = key;
+			this.image = image;
+			this.offsetX = offsetX;
+			this.offsetY = offsetY;
+			this.pixels = image.getWidth() * image.getHeight();
+		}
+		
+		/**
+		 * @return				the rendered sprite
+		 */
+		public Image getImage() {
+			return this.image;
+		}
+		
+		/**
+		 * @return				x offset to draw the image at in pixels, relative to the object's location
+		 */
+		public int getOffsetX() {
+			return this.offsetX;
+		}
+		
+		/**
+		 * @return				y offset to draw the image at in pixels, relative to the object's location
+		 */
+		public int getOffsetY() {
+			return this.offsetY;
+		}
+	}
+}
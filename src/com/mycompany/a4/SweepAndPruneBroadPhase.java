@@ -0,0 +1,276 @@
+package com.mycompany.a4;
+
+import java.util.HashMap;
+
+
+/**
+ * SweepAndPruneBroadPhase keeps the ends of every object's bounding box sorted along the x and y axes.
+ * Objects only move a little each tick, so the arrays stay nearly sorted and an insertion sort puts them
+ * back in order in close to linear time. Every swap of a start and an end point is an object entering or
+ * leaving another's extent, which is used to keep the set of overlapping pairs up to date incrementally.
+ *
+ * @author Eric Brown
+ */
+public class SweepAndPruneBroadPhase implements IBroadPhase {
+	private static final int AXES = 2;
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private int stamp = 0;  // Incremented every tick, used to find objects that have left the game.
+	private HashMap<GameObject, Integer> proxies = new HashMap<GameObject, Integer>();
+	
+	// Per proxy state, indexed by proxy number.
+	private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+	private int[] stamps = new int[INITIAL_CAPACITY];
+	private float[][] mins = new float[AXES][INITIAL_CAPACITY];
+	private float[][] maxes = new float[AXES][INITIAL_CAPACITY];
+	private int[] freeProxies = new int[INITIAL_CAPACITY];
+	private int freeCount = 0;
+	private int proxyCount = 0;  // Number of proxy numbers handed out so far.
+	
+	// Sorted end points for each axis, encoded as proxy * 2 for a start point and proxy * 2 + 1 for an end point.
+	private int[][] endPoints = new int[AXES][INITIAL_CAPACITY * 2];
+	private int endPointCount = 0;
+	
+	private PairSet overlaps = new PairSet();
+	
+	/**
+	 * Refreshes every bounding box, re-sorts the end points and reports the pairs whose boxes overlap.
+	 */
+	@Override
+	public void findCandidatePairs(GameObjectCollection collection, CollisionPairBuffer pairs) {
+		stamp++;
+		boolean removed = false;
+		
+		for (int i = 0; i < collection.size(); i++) {
+			GameObject object = collection.get(i);
+			Integer proxy = proxies.get(object);
+			
+			if (proxy == null) {
+				proxy = Integer.valueOf(createProxy(object));
+				proxies.put(object, proxy);
+			}
+			
+			updateBounds(proxy.intValue());
+			stamps[proxy.intValue()] = stamp;
+		}
+		
+		for (int i = 0; i < proxyCount; i++) {
+			if (objects[i] != null && stamps[i] != stamp) {
+				proxies.remove(objects[i]);
+				objects[i] = null;
+				freeProxies[freeCount++] = i;
+				removed = true;
+			}
+		}
+		
+		if (removed) {
+			removeStaleEndPoints();
+			removeStaleOverlaps();
+		}
+		
+		for (int axis = 0; axis < AXES; axis++) {
+			sortAxis(axis);
+		}
+		
+		for (int i = 0; i < overlaps.size(); i++) {
+			long key = overlaps.get(i);
+			pairs.add(objects[PairSet.first(key)], objects[PairSet.second(key)]);
+		}
+	}
+	
+	/**
+	 * Forgets every object.
+	 */
+	@Override
+	public void clear() {
+		proxies.clear();
+		overlaps.clear();
+		
+		for (int i = 0; i < proxyCount; i++) {
+			objects[i] = null;
+		}
+		proxyCount = 0;
+		freeCount = 0;
+		endPointCount = 0;
+	}
+	
+	/**
+	 * Assigns a proxy to a new object. Its end points are appended to each axis and find their place on the next sort.
+	 *
+	 * @param object			the object to track
+	 * @return					proxy number for the object
+	 */
+	private int createProxy(GameObject object) {
+		int proxy;
+		
+		if (freeCount > 0) {
+			proxy = freeProxies[--freeCount];
+		}
+		else {
+			if (proxyCount == objects.length) {
+				growProxies();
+			}
+			proxy = proxyCount++;
+		}
+		
+		objects[proxy] = object;
+		updateBounds(proxy);
+		
+		for (int axis = 0; axis < AXES; axis++) {
+			endPoints[axis][endPointCount] = proxy * 2;
+			endPoints[axis][endPointCount + 1] = proxy * 2 + 1;
+		}
+		endPointCount += 2;
+		
+		return proxy;
+	}
+	
+	/**
+	 * Copies the object's current bounding box into the proxy arrays.
+	 *
+	 * @param proxy				proxy to update
+	 */
+	private void updateBounds(int proxy) {
+		GameObject object = objects[proxy];
+		mins[0][proxy] = object.getBoundsLeft();
+		maxes[0][proxy] = object.getBoundsRight();
+		mins[1][proxy] = object.getBoundsBottom();
+		maxes[1][proxy] = object.getBoundsTop();
+	}
+	
+	/**
+	 * Insertion sorts the end points of an axis, updating the overlap set for every start point that
+	 * passes an end point and vice versa.
+	 *
+	 * @param axis				axis to sort
+	 */
+	private void sortAxis(int axis) {
+		int[] points = endPoints[axis];
+		
+		for (int i = 1; i < endPointCount; i++) {
+			int point = points[i];
+			float value = valueOf(axis, point);
+			int j = i - 1;
+			
+			while (j >= 0 && comesBefore(value, point, valueOf(axis, points[j]), points[j])) {
+				int other = points[j];
+				int proxy = point >> 1;
+				int otherProxy = other >> 1;
+				boolean isStart = (point & 1) == 0;
+				boolean otherIsStart = (other & 1) == 0;
+				
+				if (proxy != otherProxy) {
+					if (isStart && !otherIsStart) {  // Start moved before the other's end, the boxes may now overlap.
+						if (boxesOverlap(proxy, otherProxy)) {
+							overlaps.add(PairSet.key(proxy, otherProxy));
+						}
+					}
+					else if (!isStart && otherIsStart) {  // End moved before the other's start, the boxes no longer overlap.
+						overlaps.remove(PairSet.key(proxy, otherProxy));
+					}
+				}
+				
+				points[j + 1] = other;
+				j--;
+			}
+			points[j + 1] = point;
+		}
+	}
+	
+	/**
+	 * Orders end points by value. On ties start points come first so touching boxes count as overlapping,
+	 * matching GameObject.collidesWith.
+	 */
+	private static boolean comesBefore(float value, int point, float otherValue, int otherPoint) {
+		if (value != otherValue) {
+			return value < otherValue;
+		}
+		return (point & 1) < (otherPoint & 1);
+	}
+	
+	/**
+	 * @param axis				axis of the end point
+	 * @param point				encoded end point
+	 * @return					the coordinate of the end point
+	 */
+	private float valueOf(int axis, int point) {
+		int proxy = point >> 1;
+		return ((point & 1) == 0) ? mins[axis][proxy] : maxes[axis][proxy];
+	}
+	
+	/**
+	 * @return					true if the two proxies' boxes overlap on every axis
+	 */
+	private boolean boxesOverlap(int first, int second) {
+		for (int axis = 0; axis < AXES; axis++) {
+			if (mins[axis][first] > maxes[axis][second] || mins[axis][second] > maxes[axis][first]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Compacts the end point arrays, dropping the end points of released proxies.
+	 */
+	private void removeStaleEndPoints() {
+		int count = 0;
+		
+		for (int axis = 0; axis < AXES; axis++) {
+			int[] points = endPoints[axis];
+			count = 0;
+			
+			for (int i = 0; i < endPointCount; i++) {
+				if (objects[points[i] >> 1] != null) {
+					points[count++] = points[i];
+				}
+			}
+		}
+		endPointCount = count;
+	}
+	
+	/**
+	 * Drops the overlapping pairs that involve released proxies.
+	 */
+	private void removeStaleOverlaps() {
+		for (int i = overlaps.size() - 1; i >= 0; i--) {
+			long key = overlaps.get(i);
+			
+			if (objects[PairSet.first(key)] == null || objects[PairSet.second(key)] == null) {
+				overlaps.remove(key);
+			}
+		}
+	}
+	
+	/**
+	 * Doubles the capacity of every per proxy array.
+	 */
+	private void growProxies() {
+		int capacity = objects.length * 2;
+		
+		GameObject[] newObjects = new GameObject[capacity];
+		System.arraycopy(objects, 0, newObjects, 0, proxyCount);
+		objects = newObjects;
+		
+		int[] newStamps = new int[capacity];
+		System.arraycopy(stamps, 0, newStamps, 0, proxyCount);
+		stamps = newStamps;
+		
+		int[] newFree = new int[capacity];
+		System.arraycopy(freeProxies, 0, newFree, 0, freeCount);
+		freeProxies = newFree;
+		
+		for (int axis = 0; axis < AXES; axis++) {
+			float[] newMins = new float[capacity];
+			float[] newMaxes = new float[capacity];
+			System.arraycopy(mins[axis], 0, newMins, 0, proxyCount);
+			System.arraycopy(maxes[axis], 0, newMaxes, 0, proxyCount);
+			mins[axis] = newMins;
+			maxes[axis] = newMaxes;
+			
+			int[] newPoints = new int[capacity * 2];
+			System.arraycopy(endPoints[axis], 0, newPoints, 0, endPointCount);
+			endPoints[axis] = newPoints;
+		}
+	}
+}
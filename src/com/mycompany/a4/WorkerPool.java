@@ -0,0 +1,200 @@
+package com.mycompany.a4;
+
+
+/**
+ * WorkerPool runs an IRangeTask over chunks of an index range on a fixed set of threads. The thread calling
+ * invoke takes chunks too and only returns once every chunk has run, so the caller can treat invoke as an
+ * ordinary (if faster) loop.
+ *
+ * Threads are started once and wait between calls rather than being created every tick. The pool only
+ * uses Thread, synchronized and wait/notify, which the Codename One runtime supports on every platform.
+ *
+ * @author Eric Brown
+ */
+public class WorkerPool {
+	private Thread[] threads;
+	private boolean running = true;
+	
+	// State of the current call to invoke, guarded by this.
+	private IRangeTask task;
+	private int count;
+	private int chunkSize;
+	private int nextChunk;
+	private int chunkCount;
+	private int busyThreads = 0;
+	private int generation = 0;  // Incremented for every call to invoke so waiting threads know there is work.
+	private RuntimeException failure;
+	
+	/**
+	 * Constructor for WorkerPool.
+	 *
+	 * @param threadCount		number of threads to start in addition to the calling thread
+	 */
+	public WorkerPool(int threadCount) {
+		threads = new Thread[threadCount];
+		
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread(new Worker(i + 1));
+			threads[i].start();
+		}
+	}
+	
+	/**
+	 * @return					number of workers that can run ranges at once, including the calling thread
+	 */
+	public int getWorkerCount() {
+		return threads.length + 1;
+	}
+	
+	/**
+	 * Runs the task over [0, count) in chunks and waits for all of them to finish.
+	 *
+	 * @param task				task to run
+	 * @param count				size of the index range
+	 * @param chunkSize			number of indices handed to a worker at a time
+	 */
+	public void invoke(IRangeTask task, int count, int chunkSize) {
+		synchronized (this) {
+			if (!running) {
+				throw new IllegalStateException("WorkerPool has been shut down");
+			}
+			this.task = task;
+			this.count = count;
+			this.chunkSize = chunkSize;
+			this.nextChunk = 0;
+			this.chunkCount = (count + chunkSize - 1) / chunkSize;
+			this.busyThreads = threads.length;
+			this.failure = null;
+			this.generation++;
+			this.notifyAll();
+		}
+		
+		runChunks(task, 0);
+		
+		synchronized (this) {
+			while (busyThreads > 0) {
+				waitQuietly();
+			}
+			this.task = null;
+			
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+	
+	/**
+	 * Stops every thread once it finishes its current work. The pool can't be used afterwards.
+	 */
+	public synchronized void shutdown() {
+		running = false;
+		this.notifyAll();
+	}
+	
+	/**
+	 * Takes chunks of the current call and runs them until there are none left.
+	 *
+	 * @param task				task of the current call
+	 * @param worker			index of the worker taking the chunks
+	 */
+	private void runChunks(IRangeTask task, int worker) {
+		int chunk;
+		
+		while ((chunk = claimChunk()) >= 0) {
+			int start = chunk * chunkSize;
+			int end = Math.min(count, start + chunkSize);
+			
+			try {
+				task.run(start, end, worker);
+			}
+			catch (RuntimeException e) {
+				recordFailure(e);
+			}
+		}
+	}
+	
+	/**
+	 * @return					the next chunk of the current call, -1 when they have all been handed out
+	 */
+	private synchronized int claimChunk() {
+		if (nextChunk >= chunkCount) {
+			return -1;
+		}
+		return nextChunk++;
+	}
+	
+	/**
+	 * Keeps the first exception thrown by a chunk so invoke can rethrow it, and skips the remaining chunks.
+	 */
+	private synchronized void recordFailure(RuntimeException e) {
+		if (failure == null) {
+			failure = e;
+		}
+		nextChunk = chunkCount;
+	}
+	
+	/**
+	 * Waits on this pool, ignoring interrupts. Must be called while holding the lock.
+	 */
+	private void waitQuietly() {
+		try {
+			this.wait();
+		}
+		catch (InterruptedException e) {
+			// Condition is checked again by the caller.
+		}
+	}
+	
+	/**
+	 * A pool thread, which waits for each call to invoke and helps run its chunks.
+	 *
+	 * @author Eric Brown
+	 */
+	private class Worker implements Runnable {
+		private int index;
+		
+		/**
+		 * Constructor for Worker.
+		 *
+		 * @param index			worker index passed on to the task
+		 */
+		Worker(int index) {
+			this.index = index;
+		}
+		
+		@Override
+		public void run() {
+			int seenGeneration = 0;
+			
+			while (true) {
+				IRangeTask current;
+				
+				synchronized (WorkerPool.this) {
+					while (running && generation == seenGeneration) {
+						waitQuietly();
+					}
+					
+					if (!running) {
+						if (generation != seenGeneration) {  // Shut down before taking part in a call, the caller runs its chunks.
+							busyThreads--;
+							WorkerPool.this.notifyAll();
+						}
+						return;
+					}
+					seenGeneration = generation;
+					current = task;
+				}
+				
+				runChunks(current, index);
+				
+				synchronized (WorkerPool.this) {
+					busyThreads--;
+					
+					if (busyThreads == 0) {
+						WorkerPool.this.notifyAll();
+					}
+				}
+			}
+		}
+	}
+}
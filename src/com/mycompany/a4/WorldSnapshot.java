@@ -0,0 +1,385 @@
+package com.mycompany.a4;
+
+
+/**
+ * WorldSnapshot is a copy of where every object in the world was after a simulation step, taken on the
+ * simulation thread so the map can be drawn without reading locations the simulation is still changing.
+ * Snapshots are reused from step to step, so capturing one does not allocate once the arrays are big enough.
+ *
+ * The broad phase can't be asked which objects are in the map's window, since the simulation keeps
+ * changing it while the snapshot is drawn. Instead, capturing files the moving objects into a uniform
+ * grid sized to about one object per cell, so queryRegion only visits the cells around the window.
+ *
+ * @author Eric Brown
+ */
+public class WorldSnapshot {
+	private static final int INITIAL_CAPACITY = 32;
+	private static final float MIN_CELL_SIZE = 64;  // World units per side of a grid cell.
+	
+	private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+	private float[] locationX = new float[INITIAL_CAPACITY];
+	private float[] locationY = new float[INITIAL_CAPACITY];
+	private float[] previousX = new float[INITIAL_CAPACITY];
+	private float[] previousY = new float[INITIAL_CAPACITY];
+	private float[] rotation = new float[INITIAL_CAPACITY];
+	
+	// Appearance of the Fixed objects, so a station drained mid-draw is never drawn half changed.
+	private int[] color = new int[INITIAL_CAPACITY];
+	private boolean[] selected = new boolean[INITIAL_CAPACITY];
+	private String[] label = new String[INITIAL_CAPACITY];
+	
+	private int size = 0;
+	private int fixedRevision = -1;  // Fixed revision of the collection as of the captured step.
+	private int modificationCount = -1;  // Modification count of the collection as of the captured step.
+	private ShockWaveSystem shockWaves = new ShockWaveSystem();
+	
+	private long stepTime;  // System.nanoTime() the last captured step was simulated for.
+	private long stepNanos;
+	
+	// Grid over the moving objects. The objects of cell c are cellObjects[cellStart[c]] up to cellObjects[cellStart[c + 1]].
+	private int movingCount = 0;
+	private float gridLeft = 0;
+	private float gridBottom = 0;
+	private float cellSize = MIN_CELL_SIZE;
+	private int gridColumns = 0;
+	private int gridRows = 0;
+	private int[] cellStart = new int[1];
+	private int[] cellObjects = new int[INITIAL_CAPACITY];
+	private int[] objectCells = new int[INITIAL_CAPACITY];  // Cell of each moving object.
+	private float maxReach = 0;  // Furthest any moving object's box reaches from its captured location while drawn.
+	private int[] queryResult = new int[INITIAL_CAPACITY];
+	
+	private int fixedCount = 0;
+	private int[] fixedObjects = new int[INITIAL_CAPACITY];  // Positions of the Fixed objects.
+	
+	/**
+	 * Copies the state of every object in the collection. Only called with the world locked, so no
+	 * object changes while it is copied.
+	 *
+	 * @param collection		objects in play
+	 * @param waves				shockwaves in play
+	 * @param stepTime			System.nanoTime() the last step was simulated for
+	 * @param stepNanos			length of a simulation step in nanoseconds
+	 */
+	void capture(GameObjectCollection collection, ShockWaveSystem waves, long stepTime, long stepNanos) {
+		int count = collection.size();
+		
+		if (count > objects.length) {
+			grow(Math.max(count, objects.length * 2));
+		}
+		
+		for (int i = 0; i < count; i++) {
+			GameObject object = collection.get(i);
+			objects[i] = object;
+			locationX[i] = object.getLocationX();
+			locationY[i] = object.getLocationY();
+			previousX[i] = object.getPreviousLocationX();
+			previousY[i] = object.getPreviousLocationY();
+			rotation[i] = object.getRotation();
+			
+			if (object instanceof Fixed) {
+				Fixed fixed = (Fixed) object;
+				color[i] = fixed.getColor();
+				selected[i] = fixed.isSelected();
+				label[i] = fixed.getLabel();
+			}
+		}
+		
+		// Let go of objects that have left the game since the last capture.
+		for (int i = count; i < size; i++) {
+			objects[i] = null;
+			label[i] = null;
+		}
+		
+		this.size = count;
+		this.fixedRevision = collection.getFixedRevision();
+		this.modificationCount = collection.getModificationCount();
+		this.shockWaves.copyFrom(waves);
+		this.stepTime = stepTime;
+		this.stepNanos = stepNanos;
+		buildIndex();
+	}
+	
+	/**
+	 * @return					number of objects in the snapshot
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @return					number of objects in the snapshot that are not Fixed
+	 */
+	public int getMovingCount() {
+		return this.movingCount;
+	}
+	
+	/**
+	 * @return					number of Fixed objects in the snapshot
+	 */
+	public int getFixedCount() {
+		return this.fixedCount;
+	}
+	
+	/**
+	 * @param index				position within [0, getFixedCount())
+	 * @return					position of a Fixed object within [0, size)
+	 */
+	public int getFixed(int index) {
+		return fixedObjects[index];
+	}
+	
+	/**
+	 * Finds the moving objects that may overlap a region wherever they are drawn between the last two
+	 * captured steps, by visiting the grid cells around it. Every object that overlaps is found, along
+	 * with some that don't, so callers still test each one with overlaps.
+	 *
+	 * @param left				smallest x of the region
+	 * @param bottom			smallest y of the region
+	 * @param right				largest x of the region
+	 * @param top				largest y of the region
+	 * @return					number of objects found, read with getQueryResult
+	 */
+	public int queryRegion(float left, float bottom, float right, float top) {
+		if (movingCount == 0) {
+			return 0;
+		}
+		
+		int firstColumn = (int) Math.floor((left - maxReach - gridLeft) / cellSize);
+		int lastColumn = (int) Math.floor((right + maxReach - gridLeft) / cellSize);
+		int firstRow = (int) Math.floor((bottom - maxReach - gridBottom) / cellSize);
+		int lastRow = (int) Math.floor((top + maxReach - gridBottom) / cellSize);
+		
+		if (lastColumn < 0 || firstColumn >= gridColumns || lastRow < 0 || firstRow >= gridRows) {
+			return 0;
+		}
+		firstColumn = Math.max(0, firstColumn);
+		lastColumn = Math.min(gridColumns - 1, lastColumn);
+		firstRow = Math.max(0, firstRow);
+		lastRow = Math.min(gridRows - 1, lastRow);
+		
+		int count = 0;
+		for (int row = firstRow; row <= lastRow; row++) {
+			int first = cellStart[row * gridColumns + firstColumn];
+			int end = cellStart[row * gridColumns + lastColumn + 1];
+			
+			// The cells of a row are consecutive, so their objects are too.
+			System.arraycopy(cellObjects, first, queryResult, count, end - first);
+			count += end - first;
+		}
+		return count;
+	}
+	
+	/**
+	 * @param index				position within the result of the last queryRegion
+	 * @return					position of the object within [0, size)
+	 */
+	public int getQueryResult(int index) {
+		return queryResult[index];
+	}
+	
+	/**
+	 * @return					Fixed revision of the object collection as of the captured step
+	 */
+	public int getFixedRevision() {
+		return this.fixedRevision;
+	}
+	
+	/**
+	 * @return					modification count of the object collection as of the captured step
+	 */
+	public int getModificationCount() {
+		return this.modificationCount;
+	}
+	
+	/**
+	 * @return					copy of the shockwaves as of the captured step
+	 */
+	public ShockWaveSystem getShockWaves() {
+		return this.shockWaves;
+	}
+	
+	/**
+	 * @param now				current System.nanoTime()
+	 * @return					how far between the last two captured steps objects should be drawn, in [0, 1]
+	 */
+	public float getInterpolation(long now) {
+		float alpha = (float) (now - stepTime) / stepNanos;
+		return Math.max(0, Math.min(1, alpha));
+	}
+	
+	/**
+	 * Checks whether an object's bounding box, where it is drawn, overlaps a region.
+	 *
+	 * @param index				position within [0, size)
+	 * @param alpha				how far between the last two captured steps the object is drawn
+	 * @param left				smallest x of the region
+	 * @param bottom			smallest y of the region
+	 * @param right				largest x of the region
+	 * @param top				largest y of the region
+	 * @return					true if the object overlaps the region
+	 */
+	public boolean overlaps(int index, float alpha, float left, float bottom, float right, float top) {
+		float half = objects[index].getSize() / 2f;
+		float x = previousX[index] + (locationX[index] - previousX[index]) * alpha;
+		float y = previousY[index] + (locationY[index] - previousY[index]) * alpha;
+		return x + half >= left && x - half <= right && y + half >= bottom && y - half <= top;
+	}
+	
+	/**
+	 * @param index				position within [0, size)
+	 * @return					x coordinate as of the captured step
+	 */
+	public float getLocationX(int index) {
+		return locationX[index];
+	}
+	
+	/**
+	 * @param index				position within [0, size)
+	 * @return					y coordinate as of the captured step
+	 */
+	public float getLocationY(int index) {
+		return locationY[index];
+	}
+	
+	/**
+	 * @param index				position within [0, size)
+	 * @return					x coordinate as of the step before the captured one
+	 */
+	public float getPreviousLocationX(int index) {
+		return previousX[index];
+	}
+	
+	/**
+	 * @param index				position within [0, size)
+	 * @return					y coordinate as of the step before the captured one
+	 */
+	public float getPreviousLocationY(int index) {
+		return previousY[index];
+	}
+	
+	/**
+	 * Sets an object's draw state from the snapshot so it can be drawn. Fixed objects also get the
+	 * appearance they had when the snapshot was captured.
+	 *
+	 * @param index				position within [0, size)
+	 * @param alpha				how far between the last two captured steps to draw the object
+	 * @return					the object, ready to be drawn
+	 */
+	public GameObject prepare(int index, float alpha) {
+		GameObject object = objects[index];
+		float x = previousX[index] + (locationX[index] - previousX[index]) * alpha;
+		float y = previousY[index] + (locationY[index] - previousY[index]) * alpha;
+		object.setDrawState(x, y, rotation[index]);
+		
+		if (object instanceof Fixed) {
+			((Fixed) object).setDrawAppearance(color[index], selected[index], label[index]);
+		}
+		return object;
+	}
+	
+	/**
+	 * Files every moving object into a grid cell by its captured location, and lists the Fixed objects.
+	 * The cells are sized so there is about one object per cell, and the objects are sorted by cell with
+	 * a counting sort, so building the grid is linear in the number of objects.
+	 */
+	private void buildIndex() {
+		movingCount = 0;
+		fixedCount = 0;
+		maxReach = 0;
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+		
+		for (int i = 0; i < size; i++) {
+			if (objects[i] instanceof Fixed) {
+				fixedObjects[fixedCount++] = i;
+				continue;
+			}
+			
+			movingCount++;
+			minX = Math.min(minX, locationX[i]);
+			minY = Math.min(minY, locationY[i]);
+			maxX = Math.max(maxX, locationX[i]);
+			maxY = Math.max(maxY, locationY[i]);
+			float step = Math.max(Math.abs(locationX[i] - previousX[i]), Math.abs(locationY[i] - previousY[i]));
+			maxReach = Math.max(maxReach, objects[i].getSize() / 2f + step);
+		}
+		
+		if (movingCount == 0) {
+			return;
+		}
+		
+		float width = maxX - minX;
+		float height = maxY - minY;
+		cellSize = Math.max(MIN_CELL_SIZE, (float) Math.sqrt(width * height / movingCount));
+		gridColumns = (int) (width / cellSize) + 1;
+		gridRows = (int) (height / cellSize) + 1;
+		
+		// Objects spread along a line would get far more cells than objects, so grow the cells until they don't.
+		while ((long) gridColumns * gridRows > 4L * movingCount + 16) {
+			cellSize *= 2;
+			gridColumns = (int) (width / cellSize) + 1;
+			gridRows = (int) (height / cellSize) + 1;
+		}
+		gridLeft = minX;
+		gridBottom = minY;
+		
+		int cells = gridColumns * gridRows;
+		if (cellStart.length < cells + 1) {
+			cellStart = new int[Math.max(cells + 1, cellStart.length * 2)];
+		}
+		for (int c = 0; c <= cells; c++) {
+			cellStart[c] = 0;
+		}
+		
+		for (int i = 0; i < size; i++) {
+			if (!(objects[i] instanceof Fixed)) {
+				int column = (int) ((locationX[i] - gridLeft) / cellSize);
+				int row = (int) ((locationY[i] - gridBottom) / cellSize);
+				int cell = row * gridColumns + column;
+				objectCells[i] = cell;
+				cellStart[cell]++;
+			}
+		}
+		
+		// Turn the counts into the end of each cell, then fill backwards so each ends up at its start.
+		for (int c = 1; c < cells; c++) {
+			cellStart[c] += cellStart[c - 1];
+		}
+		cellStart[cells] = movingCount;
+		
+		for (int i = size - 1; i >= 0; i--) {
+			if (!(objects[i] instanceof Fixed)) {
+				cellObjects[--cellStart[objectCells[i]]] = i;
+			}
+		}
+	}
+	
+	/**
+	 * Enlarges every array to the given capacity.
+	 *
+	 * @param capacity			new capacity
+	 */
+	private void grow(int capacity) {
+		GameObject[] newObjects = new GameObject[capacity];
+		System.arraycopy(objects, 0, newObjects, 0, size);
+		objects = newObjects;
+		String[] newLabels = new String[capacity];
+		System.arraycopy(label, 0, newLabels, 0, size);
+		label = newLabels;
+		
+		locationX = new float[capacity];
+		locationY = new float[capacity];
+		previousX = new float[capacity];
+		previousY = new float[capacity];
+		rotation = new float[capacity];
+		color = new int[capacity];
+		selected = new boolean[capacity];
+		cellObjects = new int[capacity];
+		objectCells = new int[capacity];
+		queryResult = new int[capacity];
+		fixedObjects = new int[capacity];
+	}
+}
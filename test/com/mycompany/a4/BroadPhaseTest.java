@@ -0,0 +1,114 @@
+package com.mycompany.a4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ * Tests that the spatial hash and sweep and prune broad phases find the same contacts as testing
+ * every pair, as objects move, appear and disappear.
+ *
+ * @author Eric Brown
+ */
+public class BroadPhaseTest {
+	private static final int WORLD_SIZE = 1000;
+	private static final int STEPS = 200;
+	
+	@Test
+	public void spatialHashMatchesBruteForce() {
+		assertSameContacts(new SpatialHashBroadPhase(), 11);
+	}
+	
+	@Test
+	public void spatialHashWithSmallCellsMatchesBruteForce() {
+		// Cells smaller than the objects, so every object spans several of them.
+		assertSameContacts(new SpatialHashBroadPhase(16), 12);
+	}
+	
+	@Test
+	public void sweepAndPruneMatchesBruteForce() {
+		assertSameContacts(new SweepAndPruneBroadPhase(), 13);
+	}
+	
+	/**
+	 * Steps a world built from a fixed seed and compares the contacts found through the broad phase
+	 * with those found by brute force after every step.
+	 *
+	 * @param broadPhase		broad phase under test
+	 * @param seed				seed for the world
+	 */
+	private static void assertSameContacts(IBroadPhase broadPhase, long seed) {
+		Random generator = new Random(seed);
+		GameObjectCollection objects = new GameObjectCollection();
+		IBroadPhase bruteForce = new BruteForceBroadPhase();
+		int contacts = 0;
+		
+		for (int i = 0; i < 300; i++) {
+			objects.add(randomObject(generator));
+		}
+		
+		for (int step = 0; step < STEPS; step++) {
+			for (int i = 0; i < objects.getMovables().size(); i++) {
+				((Movable) objects.getMovables().get(i)).move(20);
+			}
+			
+			// Churn the collection so the broad phase has to pick up new objects and forget removed ones.
+			if (step % 10 == 0) {
+				for (int i = 0; i < 5; i++) {
+					objects.remove(objects.get(generator.nextInt(objects.size())));
+					objects.add(randomObject(generator));
+				}
+			}
+			
+			Set<Long> expected = contacts(bruteForce, objects);
+			assertEquals("step " + step, expected, contacts(broadPhase, objects));
+			contacts += expected.size();
+		}
+		
+		// Make sure the world was dense enough for the comparison to mean something.
+		assertTrue(contacts > STEPS);
+	}
+	
+	/**
+	 * @param broadPhase		broad phase to ask for candidates
+	 * @param objects			objects in play
+	 * @return					ids of every pair of objects that are actually colliding
+	 */
+	private static Set<Long> contacts(IBroadPhase broadPhase, GameObjectCollection objects) {
+		CollisionPairBuffer pairs = new CollisionPairBuffer();
+		broadPhase.findCandidatePairs(objects, pairs);
+		
+		Set<Long> contacts = new HashSet<Long>();
+		for (int i = 0; i < pairs.size(); i++) {
+			GameObject first = pairs.getFirst(i);
+			GameObject second = pairs.getSecond(i);
+			
+			if (first.collidesWith(second)) {
+				assertTrue("pair reported twice", contacts.add(PairSet.key(first.getId(), second.getId())));
+			}
+		}
+		return contacts;
+	}
+	
+	/**
+	 * @param generator			source of randomness
+	 * @return					a drone or energy station somewhere in the world
+	 */
+	private static GameObject randomObject(Random generator) {
+		float x = generator.nextInt(WORLD_SIZE);
+		float y = generator.nextInt(WORLD_SIZE);
+		int size = 10 + generator.nextInt(50);
+		
+		if (generator.nextInt(4) == 0) {
+			return new EnergyStation(size, x, y);
+		}
+		return new Drone(size, 0, x, y, 5 + generator.nextInt(10), generator.nextInt(360), WORLD_SIZE, WORLD_SIZE,
+				generator.nextLong());
+	}
+}
@@ -0,0 +1,130 @@
+package com.mycompany.a4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests that swap-removal keeps each object's recorded list position in step with where it is stored.
+ *
+ * @author Eric Brown
+ */
+public class GameObjectListTest {
+	
+	@Test
+	public void newObjectsAreInNoList() {
+		GameObject object = new EnergyStation(10, 0, 0);
+		
+		assertEquals(GameObjectList.SLOT_COUNT, object.listPositions.length);
+		for (int position : object.listPositions) {
+			assertEquals(-1, position);
+		}
+	}
+	
+	@Test
+	public void swapRemoveKeepsPositionsConsistent() {
+		Random generator = new Random(7);
+		GameObjectList first = new GameObjectList(0);
+		GameObjectList second = new GameObjectList(1);
+		ArrayList<GameObject> inFirst = new ArrayList<GameObject>();
+		ArrayList<GameObject> inSecond = new ArrayList<GameObject>();
+		
+		for (int i = 0; i < 2000; i++) {
+			if (inFirst.isEmpty() || generator.nextInt(3) > 0) {
+				GameObject object = new EnergyStation(10, i, i);
+				first.add(object);
+				inFirst.add(object);
+				
+				// Every other object is also in a list using another slot, which must not be disturbed.
+				if (i % 2 == 0) {
+					second.add(object);
+					inSecond.add(object);
+				}
+			} else {
+				GameObject object = inFirst.remove(generator.nextInt(inFirst.size()));
+				first.remove(object);
+				assertEquals(-1, object.listPositions[0]);
+				assertFalse(first.contains(object));
+			}
+			
+			assertConsistent(first, 0, inFirst);
+			assertConsistent(second, 1, inSecond);
+		}
+	}
+	
+	@Test
+	public void removingAbsentObjectDoesNothing() {
+		GameObjectList list = new GameObjectList(0);
+		GameObject kept = new EnergyStation(10, 0, 0);
+		GameObject absent = new EnergyStation(10, 0, 0);
+		list.add(kept);
+		
+		list.remove(absent);
+		
+		assertEquals(1, list.size());
+		assertSame(kept, list.get(0));
+		assertEquals(0, kept.listPositions[0]);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void listsSharingASlotRejectTheSameObject() {
+		GameObject object = new EnergyStation(10, 0, 0);
+		new GameObjectList(2).add(object);
+		new GameObjectList(2).add(object);
+	}
+	
+	@Test
+	public void collectionViewsFollowRemovals() {
+		GameObjectCollection collection = new GameObjectCollection();
+		ArrayList<GameObject> added = new ArrayList<GameObject>();
+		
+		for (int i = 0; i < 50; i++) {
+			GameObject object = (i % 5 == 0) ? new Base(0, i, i, i / 5 + 1) : new EnergyStation(10, i, i);
+			collection.add(object);
+			added.add(object);
+		}
+		
+		for (int i = 0; i < added.size(); i += 3) {
+			collection.remove(added.get(i));
+		}
+		
+		for (int i = 0; i < added.size(); i++) {
+			GameObject object = added.get(i);
+			boolean present = i % 3 != 0;
+			
+			assertEquals(present, collection.contains(object));
+			assertEquals(present, collection.getFixed().contains(object));
+			if (object instanceof Base) {
+				assertEquals(present, collection.getBases().contains(object));
+			} else {
+				assertEquals(present, collection.getEnergyStations().contains(object));
+			}
+		}
+		assertEquals(33, collection.size());
+		for (int i = 0; i < collection.size(); i++) {
+			assertEquals(i, collection.get(i).listPositions[0]);
+		}
+	}
+	
+	/**
+	 * Checks that a list holds exactly the expected objects and that each records where it is stored.
+	 */
+	private static void assertConsistent(GameObjectList list, int slot, ArrayList<GameObject> expected) {
+		assertEquals(expected.size(), list.size());
+		
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals(i, list.get(i).listPositions[slot]);
+		}
+		for (GameObject object : expected) {
+			assertTrue(list.contains(object));
+			assertSame(object, list.get(object.listPositions[slot]));
+		}
+	}
+}
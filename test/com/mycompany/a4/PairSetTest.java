@@ -0,0 +1,181 @@
+package com.mycompany.a4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ * Tests for PairSet, in particular that backward-shift deletion keeps colliding keys reachable.
+ *
+ * @author Eric Brown
+ */
+public class PairSetTest {
+	private static final int MASK = 63;  // Slot mask of a PairSet that has not grown.
+	
+	@Test
+	public void keyIsUnordered() {
+		long key = PairSet.key(7, 3);
+		
+		assertEquals(key, PairSet.key(3, 7));
+		assertEquals(3, PairSet.first(key));
+		assertEquals(7, PairSet.second(key));
+	}
+	
+	@Test
+	public void addRejectsDuplicates() {
+		PairSet set = new PairSet();
+		
+		assertTrue(set.add(PairSet.key(1, 2)));
+		assertFalse(set.add(PairSet.key(2, 1)));
+		assertEquals(1, set.size());
+	}
+	
+	@Test
+	public void removeKeepsCollidingKeysReachable() {
+		long[] colliding = collidingKeys(6);
+		PairSet set = new PairSet();
+		
+		for (long key : colliding) {
+			assertTrue(set.add(key));
+		}
+		
+		// Removing from the front, middle and back of the probe run must leave the rest findable.
+		int[] order = { 0, 3, 5, 1, 4, 2 };
+		Set<Long> remaining = new HashSet<Long>();
+		for (long key : colliding) {
+			remaining.add(key);
+		}
+		
+		for (int i : order) {
+			assertTrue(set.remove(colliding[i]));
+			assertFalse(set.remove(colliding[i]));
+			remaining.remove(colliding[i]);
+			
+			for (long key : colliding) {
+				assertEquals(remaining.contains(key), set.contains(key));
+			}
+			assertMembersMatch(remaining, set);
+		}
+	}
+	
+	@Test
+	public void removeHandlesRunsThatWrapAround() {
+		// Keys whose home is the last slot probe past the end of the table into slot zero.
+		long[] wrapping = keysWithHome(MASK, 3);
+		long[] atZero = keysWithHome(0, 2);
+		PairSet set = new PairSet();
+		Set<Long> remaining = new HashSet<Long>();
+		
+		for (long key : wrapping) {
+			set.add(key);
+			remaining.add(key);
+		}
+		for (long key : atZero) {
+			set.add(key);
+			remaining.add(key);
+		}
+		
+		set.remove(wrapping[0]);
+		remaining.remove(wrapping[0]);
+		assertMembersMatch(remaining, set);
+		
+		set.remove(atZero[0]);
+		remaining.remove(atZero[0]);
+		assertMembersMatch(remaining, set);
+	}
+	
+	@Test
+	public void randomOperationsMatchHashSet() {
+		Random generator = new Random(42);
+		PairSet set = new PairSet();
+		Set<Long> expected = new HashSet<Long>();
+		
+		for (int i = 0; i < 20000; i++) {
+			long key = PairSet.key(generator.nextInt(64), generator.nextInt(64));
+			
+			if (generator.nextBoolean()) {
+				assertEquals(expected.add(key), set.add(key));
+			} else {
+				assertEquals(expected.remove(key), set.remove(key));
+			}
+		}
+		assertMembersMatch(expected, set);
+	}
+	
+	@Test
+	public void clearEmptiesAndStaysUsable() {
+		PairSet set = new PairSet();
+		
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 1000; i++) {
+				set.add(PairSet.key(i, i + 1));
+			}
+			set.clear();
+			assertEquals(0, set.size());
+			assertFalse(set.contains(PairSet.key(0, 1)));
+		}
+		
+		// A table left large by an earlier burst keeps working as it shrinks over several clears.
+		for (int round = 0; round < 10; round++) {
+			long[] colliding = collidingKeys(4);
+			for (long key : colliding) {
+				assertTrue(set.add(key));
+			}
+			for (long key : colliding) {
+				assertTrue(set.contains(key));
+			}
+			set.clear();
+			assertEquals(0, set.size());
+		}
+	}
+	
+	/**
+	 * @param count				number of keys wanted
+	 * @return					distinct keys that all share the home slot of the first one
+	 */
+	private static long[] collidingKeys(int count) {
+		return keysWithHome(LongKeyMap.home(PairSet.key(0, 1), MASK), count);
+	}
+	
+	/**
+	 * @param home				slot the keys should hash to
+	 * @param count				number of keys wanted
+	 * @return					distinct keys whose home slot is home
+	 */
+	private static long[] keysWithHome(int home, int count) {
+		long[] keys = new long[count];
+		int found = 0;
+		
+		for (int b = 1; found < count; b++) {
+			long key = PairSet.key(0, b);
+			if (LongKeyMap.home(key, MASK) == home) {
+				keys[found++] = key;
+			}
+		}
+		return keys;
+	}
+	
+	/**
+	 * Checks that the dense members of the set are exactly the expected keys.
+	 */
+	private static void assertMembersMatch(Set<Long> expected, PairSet set) {
+		assertEquals(expected.size(), set.size());
+		
+		Set<Long> members = new HashSet<Long>();
+		for (int i = 0; i < set.size(); i++) {
+			members.add(set.get(i));
+		}
+		assertEquals(expected, members);
+		
+		for (long key : expected) {
+			assertTrue(set.contains(key));
+		}
+	}
+}
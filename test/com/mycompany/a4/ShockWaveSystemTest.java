@@ -0,0 +1,166 @@
+package com.mycompany.a4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests spawning, moving, expiring and reusing the rows of a ShockWaveSystem.
+ *
+ * @author Eric Brown
+ */
+public class ShockWaveSystemTest {
+	private static final float EVERYWHERE = 1e6f;
+	
+	@Test
+	public void spawnAddsAWaveAtItsLocation() {
+		ShockWaveSystem waves = new ShockWaveSystem();
+		waves.spawn(10, 20, new Random(1));
+		
+		assertEquals(1, waves.size());
+		assertEquals(1, waves.getRevision());
+		assertEquals(10, waves.getLocationX(0), 0);
+		assertEquals(20, waves.getLocationY(0), 0);
+		assertEquals(10, waves.getPreviousLocationX(0), 0);
+		assertEquals(20, waves.getPreviousLocationY(0), 0);
+	}
+	
+	@Test
+	public void updateMovesAtTheWavesSpeed() {
+		ShockWaveSystem waves = new ShockWaveSystem();
+		waves.spawn(0, 0, new Random(2));
+		waves.update(1000);
+		
+		float x = waves.getLocationX(0);
+		float y = waves.getLocationY(0);
+		assertEquals(ShockWaveSystem.SPEED, Math.sqrt(x * x + y * y), 0.01);
+		assertEquals(0, waves.getPreviousLocationX(0), 0);
+		assertEquals(0, waves.getPreviousLocationY(0), 0);
+	}
+	
+	@Test
+	public void wavesExpireAfterTheirTimeToLive() {
+		ShockWaveSystem waves = new ShockWaveSystem();
+		Random generator = new Random(3);
+		waves.spawn(0, 0, generator);
+		waves.spawn(0, 0, generator);
+		
+		waves.update(ShockWaveSystem.TIME_TO_LIVE - 1);
+		assertEquals(2, waves.size());
+		
+		waves.update(1);
+		assertEquals(0, waves.size());
+	}
+	
+	@Test
+	public void expiredWaveIsReplacedByTheLastOne() {
+		ShockWaveSystem waves = new ShockWaveSystem();
+		Random generator = new Random(4);
+		waves.spawn(0, 0, generator);
+		waves.update(ShockWaveSystem.TIME_TO_LIVE / 2);
+		waves.spawn(500, 500, generator);
+		
+		// The first wave expires and the second, moved into its row, still gets this step's movement.
+		waves.update(ShockWaveSystem.TIME_TO_LIVE / 2);
+		assertEquals(1, waves.size());
+		assertEquals(500, waves.getPreviousLocationX(0), 0);
+		assertEquals(500, waves.getPreviousLocationY(0), 0);
+		assertTrue(waves.getLocationX(0) != 500 || waves.getLocationY(0) != 500);
+		assertEquals(segments(fresh(500, 500, 4, 1)), segments(waves));
+	}
+	
+	@Test
+	public void reusedRowsDrawLikeFreshWaves() {
+		ShockWaveSystem waves = new ShockWaveSystem();
+		Random generator = new Random(5);
+		
+		// Fill past the initial capacity, expire everything and spawn again into the recycled rows.
+		for (int i = 0; i < 100; i++) {
+			waves.spawn(i, i, generator);
+		}
+		waves.update(ShockWaveSystem.TIME_TO_LIVE);
+		assertEquals(0, waves.size());
+		
+		long seed = 6;
+		Random reused = new Random(seed);
+		Random expected = new Random(seed);
+		ShockWaveSystem fresh = new ShockWaveSystem();
+		
+		for (int i = 0; i < 40; i++) {
+			waves.spawn(i, -i, reused);
+			fresh.spawn(i, -i, expected);
+		}
+		assertEquals(140, waves.getRevision());
+		assertEquals(segments(fresh), segments(waves));
+	}
+	
+	@Test
+	public void drawSkipsWavesOutsideTheRegion() {
+		ShockWaveSystem waves = new ShockWaveSystem();
+		Random generator = new Random(7);
+		waves.spawn(0, 0, generator);
+		waves.spawn(10000, 10000, generator);
+		
+		RecordingSink sink = new RecordingSink();
+		assertEquals(1, waves.draw(sink, 1, -10, -10, 10, 10));
+		assertTrue(sink.lines.size() > 0);
+	}
+	
+	@Test
+	public void clearRemovesEveryWave() {
+		ShockWaveSystem waves = new ShockWaveSystem();
+		waves.spawn(0, 0, new Random(8));
+		waves.clear();
+		
+		assertEquals(0, waves.size());
+		assertEquals(0, waves.draw(new RecordingSink(), 1, -EVERYWHERE, -EVERYWHERE, EVERYWHERE, EVERYWHERE));
+	}
+	
+	/**
+	 * Spawns a wave into a new system from the same random numbers the system under test used.
+	 *
+	 * @param x					x location of the waves
+	 * @param y					y location of the waves
+	 * @param seed				seed of the generator the waves were spawned from
+	 * @param skip				waves spawned from the generator before the one wanted
+	 * @return					a system holding only the wanted wave, which hasn't moved
+	 */
+	private static ShockWaveSystem fresh(float x, float y, long seed, int skip) {
+		Random generator = new Random(seed);
+		ShockWaveSystem waves = new ShockWaveSystem();
+		
+		for (int i = 0; i < skip; i++) {
+			waves.spawn(0, 0, generator);
+		}
+		waves.clear();
+		waves.spawn(x, y, generator);
+		return waves;
+	}
+	
+	/**
+	 * @param waves				waves to draw
+	 * @return					every segment drawn at the waves' previous locations
+	 */
+	private static ArrayList<String> segments(ShockWaveSystem waves) {
+		RecordingSink sink = new RecordingSink();
+		waves.draw(sink, 0, -EVERYWHERE, -EVERYWHERE, EVERYWHERE, EVERYWHERE);
+		return sink.lines;
+	}
+	
+	/**
+	 * Records the segments it is sent.
+	 */
+	private static class RecordingSink implements ILineSink {
+		private ArrayList<String> lines = new ArrayList<String>();
+		
+		@Override
+		public void addLine(double x1, double y1, double x2, double y2) {
+			lines.add(x1 + "," + y1 + "," + x2 + "," + y2);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.mycompany.a4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+/**
+ * Tests that the snapshot a reader holds is always a whole published step and is never written to
+ * while it is held.
+ *
+ * @author Eric Brown
+ */
+public class SnapshotBufferTest {
+	private static final int OBJECT_COUNT = 16;
+	private static final int STEPS = 20000;
+	
+	@Test
+	public void nothingToReadBeforeFirstPublish() {
+		assertNull(new SnapshotBuffer().acquire());
+	}
+	
+	@Test
+	public void readerGetsLatestPublished() {
+		SnapshotBuffer buffer = new SnapshotBuffer();
+		GameObjectCollection objects = newObjects();
+		
+		for (int step = 1; step <= 5; step++) {
+			capture(buffer, objects, step);
+		}
+		assertEquals(5, stepOf(buffer.acquire()));
+	}
+	
+	@Test
+	public void writerNeverGetsHeldSnapshot() {
+		SnapshotBuffer buffer = new SnapshotBuffer();
+		GameObjectCollection objects = newObjects();
+		capture(buffer, objects, 1);
+		WorldSnapshot held = buffer.acquire();
+		
+		for (int step = 2; step < 10; step++) {
+			assertNotSame(held, buffer.getWriteBuffer());
+			capture(buffer, objects, step);
+		}
+		assertEquals(1, stepOf(held));
+		
+		WorldSnapshot latest = buffer.acquire();
+		assertEquals(9, stepOf(latest));
+		assertSame(latest, buffer.acquire());
+	}
+	
+	@Test
+	public void concurrentReaderNeverSeesTornOrReusedSnapshot() throws InterruptedException {
+		final SnapshotBuffer buffer = new SnapshotBuffer();
+		final GameObjectCollection objects = newObjects();
+		
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for (int step = 1; step <= STEPS; step++) {
+					capture(buffer, objects, step);
+				}
+			}
+		};
+		writer.start();
+		
+		int last = 0;
+		int reads = 0;
+		while (last < STEPS) {
+			WorldSnapshot snapshot = buffer.acquire();
+			if (snapshot == null) {
+				continue;
+			}
+			
+			int step = stepOf(snapshot);
+			assertTrue("went back from step " + last + " to " + step, step >= last);
+			
+			// Keep reading while the writer carries on; the held snapshot must not change underneath.
+			for (int i = 0; i < 50; i++) {
+				assertEquals(step, stepOf(snapshot));
+			}
+			last = step;
+			reads++;
+		}
+		writer.join();
+		assertTrue(reads > 0);
+	}
+	
+	/**
+	 * @return					a collection of energy stations for the writer to move
+	 */
+	private static GameObjectCollection newObjects() {
+		GameObjectCollection objects = new GameObjectCollection();
+		for (int i = 0; i < OBJECT_COUNT; i++) {
+			objects.add(new EnergyStation(10, 0, 0));
+		}
+		return objects;
+	}
+	
+	/**
+	 * Moves every object to the step number and publishes a snapshot of them.
+	 */
+	private static void capture(SnapshotBuffer buffer, GameObjectCollection objects, int step) {
+		for (int i = 0; i < objects.size(); i++) {
+			objects.get(i).setLocationX(step);
+			objects.get(i).setLocationY(step);
+		}
+		buffer.getWriteBuffer().capture(objects, new ShockWaveSystem(), 0, 1);
+		buffer.publish();
+	}
+	
+	/**
+	 * @param snapshot			a snapshot taken by capture
+	 * @return					the step it was taken at, after checking every object agrees on it
+	 */
+	private static int stepOf(WorldSnapshot snapshot) {
+		assertEquals(OBJECT_COUNT, snapshot.size());
+		
+		int step = (int) snapshot.getLocationX(0);
+		for (int i = 0; i < snapshot.size(); i++) {
+			assertEquals("torn snapshot", step, (int) snapshot.getLocationX(i));
+			assertEquals("torn snapshot", step, (int) snapshot.getLocationY(i));
+		}
+		return step;
+	}
+}